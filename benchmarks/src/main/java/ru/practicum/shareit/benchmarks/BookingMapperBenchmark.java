@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingMapper;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of loaded bookings to responses, as done for single-booking endpoints
+ * and formerly for every row of the booking lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingMapperBenchmark {
+    @Param({"1", "10", "100"})
+    private int bookingCount;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        bookings = new ArrayList<>();
+        for (int i = 0; i < bookingCount; i++) {
+            Booking booking = new Booking();
+            booking.setId((long) i + 1);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(3));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setOwnerId(owner.getId());
+            booking.setStatus(BookingStatus.APPROVED);
+            bookings.add(booking);
+        }
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> toBookingResponseDto() {
+        List<BookingResponseDto> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            result.add(BookingMapper.toBookingResponseDto(booking));
+        }
+        return result;
+    }
+}
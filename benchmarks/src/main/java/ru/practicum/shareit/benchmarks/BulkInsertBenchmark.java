@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.BookingService;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk inserts on H2 through Spring Data {@code saveAll} in one transaction and through the batch booking
+ * endpoint, which is what generated ids and JDBC batching settings affect.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+    @Param({"100", "1000"})
+    private int rowCount;
+
+    private ServerContext server;
+    private TransactionTemplate transactionTemplate;
+    private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private BookingService bookingService;
+    private User owner;
+    private User booker;
+    private List<BookingDto> bookings;
+    private long lastSetUpItemId;
+    private long nextUser;
+
+    @Setup
+    public void setUp() {
+        server = new ServerContext();
+        transactionTemplate = new TransactionTemplate(server.getBean(PlatformTransactionManager.class));
+        userRepository = server.getBean(UserRepository.class);
+        itemRepository = server.getBean(ItemRepository.class);
+        bookingService = server.getBean(BookingService.class);
+
+        owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+
+        // Every call books each item for the same period; only approved bookings conflict, so new ones still pass
+        List<Item> items = itemRepository.saveAll(newItems());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookings = new ArrayList<>(rowCount);
+        for (Item item : items) {
+            bookings.add(new BookingDto(null, start, start.plusDays(1), item.getId(), null, null));
+            lastSetUpItemId = Math.max(lastSetUpItemId, item.getId());
+        }
+    }
+
+    // Keeps table and index sizes the same in every iteration
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() {
+        server.execute("DELETE FROM bookings");
+        server.execute("DELETE FROM items WHERE id > " + lastSetUpItemId);
+        server.execute("DELETE FROM users WHERE id > " + booker.getId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<User> saveUsers() {
+        List<User> users = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            long id = nextUser++;
+            users.add(new User(null, "User " + id, "user" + id + "@example.com"));
+        }
+        return transactionTemplate.execute(status -> userRepository.saveAll(users));
+    }
+
+    @Benchmark
+    public List<Item> saveItems() {
+        List<Item> items = newItems();
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+
+    @Benchmark
+    public List<BookingBatchResultDto> createBookings() {
+        return bookingService.createBookings(bookings, booker.getId());
+    }
+
+    private List<Item> newItems() {
+        List<Item> items = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            items.add(new Item(null, "Item " + i, "Description of item " + i, true, owner, null));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.gateway.converter.DtoConverter;
+import ru.practicum.shareit.gateway.dto.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway DTO conversions. Server responses are parsed from JSON into maps the same way
+ * the gateway's RestTemplate does, so the converters see the same value types as in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoConverterBenchmark {
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {
+    };
+
+    private final DtoConverter converter = new DtoConverter();
+
+    private UserDto userDto;
+    private ItemDto itemDto;
+    private ItemUpdateDto itemUpdateDto;
+    private BookingDto bookingDto;
+    private CommentDto commentDto;
+    private ItemRequestDto itemRequestDto;
+
+    private Map<String, Object> bookingResponse;
+    private Map<String, Object> bookingWithRelationsResponse;
+    private Map<String, Object> commentResponse;
+    private Map<String, Object> itemRequestResponse;
+    private Map<String, Object> itemRequestWithItemsResponse;
+    private Map<String, Object> itemForRequestResponse;
+    private Map<String, Object> itemWithBookingsResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        userDto = new UserDto(1L, "Owner", "owner@example.com");
+        itemDto = new ItemDto(1L, "Drill", "Cordless drill with two batteries", true, 5L);
+        itemUpdateDto = new ItemUpdateDto(1L, "Drill", null, false, null);
+        bookingDto = new BookingDto(1L, start, start.plusDays(2), 1L, 2L, "WAITING");
+        commentDto = new CommentDto("Worked fine, returned on time");
+        itemRequestDto = new ItemRequestDto(null, "Need a drill for the weekend", null, null);
+
+        ObjectMapper mapper = new ObjectMapper();
+        bookingResponse = mapper.readValue("{\"id\":1,\"start\":\"2030-01-01T12:00:00\","
+                + "\"end\":\"2030-01-03T12:00:00\",\"itemId\":1,\"bookerId\":2,\"status\":\"WAITING\"}", MAP);
+        bookingWithRelationsResponse = mapper.readValue(bookingJson(1), MAP);
+        commentResponse = mapper.readValue(commentJson(1), MAP);
+        itemRequestResponse = mapper.readValue("{\"id\":1,\"description\":\"Need a drill for the weekend\","
+                + "\"requestorId\":3,\"created\":\"2029-12-30T09:15:00\"}", MAP);
+        itemRequestWithItemsResponse = mapper.readValue("{\"id\":1,\"description\":\"Need a drill\","
+                + "\"requestorId\":3,\"created\":\"2029-12-30T09:15:00\",\"items\":["
+                + itemForRequestJson(1) + "," + itemForRequestJson(2) + "," + itemForRequestJson(3) + "]}", MAP);
+        itemForRequestResponse = mapper.readValue(itemForRequestJson(1), MAP);
+        itemWithBookingsResponse = mapper.readValue(itemWithBookingsJson(1), MAP);
+    }
+
+    @Benchmark
+    public Object toServerUserDto() {
+        return converter.toServerUserDto(userDto);
+    }
+
+    @Benchmark
+    public Object toServerItemDto() {
+        return converter.toServerItemDto(itemDto);
+    }
+
+    @Benchmark
+    public Object toServerItemUpdateDto() {
+        return converter.toServerItemUpdateDto(itemUpdateDto);
+    }
+
+    @Benchmark
+    public Object toServerBookingDto() {
+        return converter.toServerBookingDto(bookingDto);
+    }
+
+    @Benchmark
+    public Object toServerCommentDto() {
+        return converter.toServerCommentDto(commentDto);
+    }
+
+    @Benchmark
+    public Object toServerItemRequestDto() {
+        return converter.toServerItemRequestDto(itemRequestDto);
+    }
+
+    @Benchmark
+    public Object toGatewayBookingDto() {
+        return converter.toGatewayBookingDto(bookingResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayBookingResponseDto() {
+        return converter.toGatewayBookingResponseDto(bookingWithRelationsResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayCommentResponseDto() {
+        return converter.toGatewayCommentResponseDto(commentResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayItemRequestDto() {
+        return converter.toGatewayItemRequestDto(itemRequestResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayItemRequestWithItemsDto() {
+        return converter.toGatewayItemRequestWithItemsDto(itemRequestWithItemsResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayItemForRequestDto() {
+        return converter.toGatewayItemForRequestDto(itemForRequestResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayItemWithBookingsDto() {
+        return converter.toGatewayItemWithBookingsDto(itemWithBookingsResponse);
+    }
+
+    @Benchmark
+    public Object toGatewayItemWithBookingsDtoList(OwnerItems ownerItems) {
+        return converter.toGatewayItemWithBookingsDtoList(ownerItems.response);
+    }
+
+    @State(Scope.Benchmark)
+    public static class OwnerItems {
+        @Param({"10", "100", "1000"})
+        private int itemCount;
+
+        private List<Map<String, Object>> response;
+
+        @Setup
+        public void setUp() throws Exception {
+            List<String> items = new ArrayList<>();
+            for (int i = 1; i <= itemCount; i++) {
+                items.add(itemWithBookingsJson(i));
+            }
+            response = new ObjectMapper().readValue("[" + String.join(",", items) + "]", MAP_LIST);
+        }
+    }
+
+    private static String bookingJson(long id) {
+        return "{\"id\":" + id + ",\"start\":\"2030-01-01T12:00:00\",\"end\":\"2030-01-03T12:00:00\","
+                + "\"item\":{\"id\":1,\"name\":\"Drill\"},\"booker\":{\"id\":2,\"name\":\"Booker\"},"
+                + "\"status\":\"APPROVED\"}";
+    }
+
+    private static String commentJson(long id) {
+        return "{\"id\":" + id + ",\"text\":\"Worked fine, returned on time\",\"authorName\":\"Booker\","
+                + "\"created\":\"2030-01-04T10:30:00\"}";
+    }
+
+    private static String itemForRequestJson(long id) {
+        return "{\"id\":" + id + ",\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true,"
+                + "\"ownerId\":1,\"requestId\":1}";
+    }
+
+    private static String itemWithBookingsJson(long id) {
+        return "{\"id\":" + id + ",\"name\":\"Drill " + id + "\",\"description\":\"Cordless drill\","
+                + "\"available\":true,\"lastBooking\":{\"id\":10,\"bookerId\":2},"
+                + "\"nextBooking\":{\"id\":11,\"bookerId\":3},"
+                + "\"comments\":[" + commentJson(1) + "," + commentJson(2) + "],\"requestId\":null}";
+    }
+}
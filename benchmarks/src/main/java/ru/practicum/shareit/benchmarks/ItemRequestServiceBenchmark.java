@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.server.request.ItemRequestService;
+import ru.practicum.shareit.server.request.dto.ItemRequestWithItemsDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request feeds on H2, which both go through {@code ItemRequestServiceImpl.getRequestsWithItems}:
+ * the requestor's own requests and the paged feed of other users' requests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemRequestServiceBenchmark {
+    private static final long REQUESTOR_ID = 1L;
+    private static final long OWNER_ID = 2L;
+    private static final int ITEMS_PER_REQUEST = 3;
+
+    @Param({"10", "100", "1000"})
+    private int requestCount;
+
+    private ServerContext server;
+    private ItemRequestService itemRequestService;
+
+    @Setup
+    public void setUp() {
+        server = new ServerContext();
+        server.insertUsers(2);
+
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        LocalDateTime created = LocalDateTime.now().minusDays(requestCount);
+        long itemId = 1;
+        for (long requestId = 1; requestId <= requestCount; requestId++) {
+            requests.add(new Object[]{requestId, "Request " + requestId, REQUESTOR_ID,
+                    Timestamp.valueOf(created.plusHours(requestId))});
+            for (int i = 0; i < ITEMS_PER_REQUEST; i++) {
+                items.add(new Object[]{itemId, "Item " + itemId, "Answer to request " + requestId, true, OWNER_ID,
+                        requestId});
+                itemId++;
+            }
+        }
+        server.insert("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)", requests);
+        server.insert("INSERT INTO items (id, name, description, is_available, owner_id, request_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", items);
+
+        itemRequestService = server.getBean(ItemRequestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<ItemRequestWithItemsDto> getRequestsByRequestor() {
+        return itemRequestService.getRequestsByRequestor(REQUESTOR_ID);
+    }
+
+    @Benchmark
+    public List<ItemRequestWithItemsDto> getAllRequests() {
+        return itemRequestService.getAllRequests(OWNER_ID, 0, requestCount);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.server.item.ItemSearchIndex;
+import ru.practicum.shareit.server.item.SearchMode;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link ItemSearchIndex} over a synthetic catalogue of Cyrillic and Latin words:
+ * whole words as substrings, three-letter prefixes and words with one typo for the fuzzy mode.
+ * The index is rebuilt from the items table, as on application start.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    private static final String CYRILLIC = "абвгдежзийклмнопрстуфхцчшщыьэюя";
+    private static final String LATIN = "abcdefghijklmnopqrstuvwxyz";
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int NAME_WORDS = 2;
+    private static final int DESCRIPTION_WORDS = 6;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int QUERY_COUNT = 1024;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    private int itemCount;
+
+    @Param({"SUBSTRING", "PREFIX", "FUZZY"})
+    private SearchMode mode;
+
+    private ServerContext server;
+    private ItemSearchIndex itemSearchIndex;
+    private String[] queries;
+    private int nextQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = randomWord(random, i % 2 == 0 ? CYRILLIC : LATIN);
+        }
+
+        server = new ServerContext();
+        server.insertUsers(1);
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (long id = 1; id <= itemCount; id++) {
+            rows.add(new Object[]{id, phrase(random, vocabulary, NAME_WORDS),
+                    phrase(random, vocabulary, DESCRIPTION_WORDS), true, 1L});
+            if (rows.size() == INSERT_BATCH_SIZE || id == itemCount) {
+                server.insert("INSERT INTO items (id, name, description, is_available, owner_id) "
+                        + "VALUES (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        itemSearchIndex = server.getBean(ItemSearchIndex.class);
+        itemSearchIndex.rebuild();
+
+        queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            String word = vocabulary[random.nextInt(VOCABULARY_SIZE)];
+            queries[i] = switch (mode) {
+                case SUBSTRING -> word;
+                case PREFIX -> word.substring(0, 3);
+                case FUZZY -> withTypo(random, word);
+            };
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        String query = queries[nextQuery++ & (QUERY_COUNT - 1)];
+        return itemSearchIndex.search(query, mode, 0, PAGE_SIZE);
+    }
+
+    private static String randomWord(Random random, String alphabet) {
+        int length = 4 + random.nextInt(7);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+
+    private static String phrase(Random random, String[] vocabulary, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return phrase.toString();
+    }
+
+    // Swaps two adjacent letters or replaces one, the most common typing mistakes
+    private static String withTypo(Random random, String word) {
+        char[] letters = word.toCharArray();
+        int position = random.nextInt(letters.length - 1);
+        if (random.nextBoolean()) {
+            char swapped = letters[position];
+            letters[position] = letters[position + 1];
+            letters[position + 1] = swapped;
+        } else {
+            String alphabet = CYRILLIC.indexOf(letters[0]) >= 0 ? CYRILLIC : LATIN;
+            char replacement;
+            do {
+                replacement = alphabet.charAt(random.nextInt(alphabet.length()));
+            } while (replacement == letters[position]);
+            letters[position] = replacement;
+        }
+        return new String(letters);
+    }
+}
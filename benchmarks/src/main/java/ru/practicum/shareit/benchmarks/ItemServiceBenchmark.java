@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.server.item.ItemService;
+import ru.practicum.shareit.server.item.dto.ItemWithBookingsDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemService#getItemsByOwner} on H2 for owners with different numbers of items and different booking
+ * histories per item, up to a million bookings behind one page. Every item has the same number of comments,
+ * so the page returned is the same size whatever the history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+    private static final long OWNER_ID = 1L;
+    private static final int BOOKER_COUNT = 10;
+    private static final int COMMENTS_PER_ITEM = 10;
+    private static final int INSERT_CHUNK_SIZE = 10_000;
+
+    @Param({"10", "100"})
+    private int itemCount;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int bookingsPerItem;
+
+    private ServerContext server;
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() {
+        server = new ServerContext();
+        server.insertUsers(1 + BOOKER_COUNT);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            items.add(new Object[]{itemId, "Item " + itemId, "Description of item " + itemId, true, OWNER_ID});
+        }
+        server.insert("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                items);
+
+        // Bookings go in chunks as they are generated, a million rows at once would not fit the default heap
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long bookingId = 1;
+        long commentId = 1;
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            // Half of the history is in the past and half in the future, so both last and next bookings exist
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = now.plusDays(2L * (i - bookingsPerItem / 2));
+                long bookerId = 2 + (i % BOOKER_COUNT);
+                bookings.add(new Object[]{bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                        itemId, bookerId, OWNER_ID, i % 5 == 0 ? "REJECTED" : "APPROVED"});
+                if (bookings.size() == INSERT_CHUNK_SIZE) {
+                    insertBookings(bookings);
+                }
+                if (i % (bookingsPerItem / COMMENTS_PER_ITEM) == 0) {
+                    comments.add(new Object[]{commentId++, "Comment " + i, itemId, bookerId,
+                            Timestamp.valueOf(start.plusDays(1))});
+                }
+            }
+        }
+        insertBookings(bookings);
+        server.insert("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                comments);
+
+        itemService = server.getBean(ItemService.class);
+    }
+
+    private void insertBookings(List<Object[]> bookings) {
+        server.insert("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+        bookings.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsDto> getItemsByOwner() {
+        return itemService.getItemsByOwner(OWNER_ID, 0, itemCount);
+    }
+}
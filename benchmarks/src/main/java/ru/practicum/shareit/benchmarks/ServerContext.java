@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The server application context without the web layer, running on a fresh in-memory H2 database.
+ */
+final class ServerContext implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+
+    ServerContext() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--shareit.booking.expiry.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    void insert(String sql, List<Object[]> rows) {
+        context.getBean(JdbcTemplate.class).batchUpdate(sql, rows);
+    }
+
+    void execute(String sql) {
+        context.getBean(JdbcTemplate.class).execute(sql);
+    }
+
+    void insertUsers(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            rows.add(new Object[]{id, "User " + id, "user" + id + "@example.com"});
+        }
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
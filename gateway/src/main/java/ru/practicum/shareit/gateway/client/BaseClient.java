@@ -1,16 +1,26 @@
 package ru.practicum.shareit.gateway.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 @Slf4j
@@ -140,6 +150,87 @@ public class BaseClient {
         }
     }
 
+    /**
+     * Sends the request and copies the server's status, content headers and body bytes
+     * straight to the servlet response, without deserializing the body.
+     */
+    protected void passThrough(HttpMethod method, String path, @Nullable Long userId,
+                               @Nullable Map<String, Object> parameters,
+                               HttpServletResponse response) throws IOException {
+        HttpHeaders requestHeaders = createHeaders(userId);
+        passThrough(method, path, userId, parameters, request -> request.getHeaders().addAll(requestHeaders),
+                response);
+    }
+
+    /**
+     * Same as {@link #passThrough(HttpMethod, String, Long, Map, HttpServletResponse)}, but also streams the body
+     * of the incoming request to the server with its content type, so uploads are not buffered by the gateway.
+     */
+    protected void passThrough(HttpMethod method, String path, @Nullable Long userId,
+                               @Nullable Map<String, Object> parameters, HttpServletRequest incoming,
+                               HttpServletResponse response) throws IOException {
+        HttpHeaders requestHeaders = createHeaders(userId);
+        if (incoming.getContentType() != null) {
+            requestHeaders.set(HttpHeaders.CONTENT_TYPE, incoming.getContentType());
+        }
+        requestHeaders.remove(HttpHeaders.ACCEPT);
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().addAll(requestHeaders);
+            if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body -> StreamUtils.copy(incoming.getInputStream(), body));
+            } else {
+                StreamUtils.copy(incoming.getInputStream(), request.getBody());
+            }
+        };
+        passThrough(method, path, userId, parameters, requestCallback, response);
+    }
+
+    private void passThrough(HttpMethod method, String path, @Nullable Long userId,
+                             @Nullable Map<String, Object> parameters, RequestCallback requestCallback,
+                             HttpServletResponse response) throws IOException {
+        String url = buildUrl(path);
+        ResponseExtractor<Void> responseExtractor = serverResponse -> {
+            copyStatusAndHeaders(serverResponse.getStatusCode(), serverResponse.getHeaders(), response);
+            copyFlushing(serverResponse.getBody(), response.getOutputStream());
+            return null;
+        };
+
+        log.debug("Passing through {} request to {} with userId: {}", method, url, userId);
+
+        try {
+            rest.execute(url, method, requestCallback, responseExtractor,
+                    parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            log.error("HTTP error from {}: {} - Body: {}", url, e.getStatusCode(),
+                    e.getResponseBodyAsString());
+
+            HttpHeaders errorHeaders = e.getResponseHeaders() != null ? e.getResponseHeaders() : new HttpHeaders();
+            copyStatusAndHeaders(e.getStatusCode(), errorHeaders, response);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    // Flushes whatever the server has sent so far, so streamed responses reach the client as they are produced
+    private void copyFlushing(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
+    private void copyStatusAndHeaders(HttpStatusCode status, HttpHeaders headers, HttpServletResponse response) {
+        response.setStatus(status.value());
+        headers.forEach((name, values) -> {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    || name.regionMatches(true, 0, "X-", 0, 2)) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+    }
+
     private HttpHeaders createHeaders(@Nullable Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Content-Type", "application/json");
@@ -1,13 +1,20 @@
 package ru.practicum.shareit.gateway.client;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.converter.DtoConverter;
 import ru.practicum.shareit.gateway.dto.BookingDto;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -27,6 +34,15 @@ public class BookingClient extends BaseClient {
         return post(path, bookerId, requestBody);
     }
 
+    public ResponseEntity<Object> createBookings(List<BookingDto> bookingDtos, Long bookerId) {
+        String path = "/bookings/batch";
+        List<Map<String, Object>> requestBody = bookingDtos.stream()
+                .map(dtoConverter::toServerBookingDto)
+                .collect(Collectors.toList());
+        log.debug("Creating a batch of {} bookings for user {}", requestBody.size(), bookerId);
+        return post(path, bookerId, requestBody);
+    }
+
     public ResponseEntity<Object> approveBooking(Long bookingId, Long ownerId, boolean approved) {
         String path = "/bookings/{bookingId}?approved={approved}";
         Map<String, Object> parameters = Map.of(
@@ -37,6 +53,13 @@ public class BookingClient extends BaseClient {
         return patch(path, ownerId, parameters, null);
     }
 
+    public ResponseEntity<Object> approveBookings(List<Long> bookingIds, Long ownerId, boolean approved) {
+        String path = "/bookings/batch?approved={approved}";
+        Map<String, Object> parameters = Map.of("approved", approved);
+        log.debug("Approving {} bookings by user {}: approved={}", bookingIds.size(), ownerId, approved);
+        return patch(path, ownerId, parameters, bookingIds);
+    }
+
     public ResponseEntity<Object> getBookingById(Long bookingId, Long userId) {
         String path = "/bookings/{bookingId}";
         Map<String, Object> parameters = Map.of("bookingId", bookingId);
@@ -44,25 +67,56 @@ public class BookingClient extends BaseClient {
         return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByBooker(Long bookerId, String state, int from, int size) {
+    public ResponseEntity<Object> getBookingSummaryByBooker(Long bookerId) {
+        log.debug("Getting booking summary for booker {}", bookerId);
+        return get("/bookings/summary", bookerId);
+    }
+
+    public ResponseEntity<Object> getBookingSummaryByOwner(Long ownerId) {
+        log.debug("Getting booking summary for owner {}", ownerId);
+        return get("/bookings/owner/summary", ownerId);
+    }
+
+    public void getBookingsByBooker(Long bookerId, String state, int from, int size,
+                                    @Nullable String cursor, HttpServletResponse response) throws IOException {
         String path = "/bookings?state={state}&from={from}&size={size}";
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
+        ));
         log.debug("Getting bookings for booker {} with state {}", bookerId, state);
-        return get(path, bookerId, parameters);
+        passThrough(HttpMethod.GET, withCursor(path, parameters, cursor), bookerId, parameters, response);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(Long ownerId, String state, int from, int size) {
+    public void getBookingsByOwner(Long ownerId, String state, int from, int size,
+                                   @Nullable String cursor, HttpServletResponse response) throws IOException {
         String path = "/bookings/owner?state={state}&from={from}&size={size}";
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
+        ));
         log.debug("Getting bookings for owner {} with state {}", ownerId, state);
-        return get(path, ownerId, parameters);
+        passThrough(HttpMethod.GET, withCursor(path, parameters, cursor), ownerId, parameters, response);
+    }
+
+    public void exportBookingsByBooker(Long bookerId, HttpServletResponse response) throws IOException {
+        log.debug("Exporting bookings for booker {}", bookerId);
+        passThrough(HttpMethod.GET, "/bookings/export", bookerId, null, response);
+    }
+
+    public void exportBookingsByOwner(Long ownerId, HttpServletResponse response) throws IOException {
+        log.debug("Exporting bookings for owner {}", ownerId);
+        passThrough(HttpMethod.GET, "/bookings/owner/export", ownerId, null, response);
+    }
+
+    // The cursor is opaque to the gateway: it is forwarded as is, and the next one comes back in X-Next-Cursor
+    private String withCursor(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return path;
+        }
+        parameters.put("cursor", cursor);
+        return path + "&cursor={cursor}";
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.gateway.client;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.converter.DtoConverter;
@@ -9,6 +13,9 @@ import ru.practicum.shareit.gateway.dto.CommentDto;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 import ru.practicum.shareit.gateway.dto.ItemUpdateDto;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,49 +45,73 @@ public class ItemClient extends BaseClient {
         return patch(path, ownerId, parameters, requestBody).getBody();
     }
 
-    public Object getItemById(Long itemId, Long userId) {
+    public void getItemById(Long itemId, Long userId, HttpServletResponse response) throws IOException {
         String path = "/items/{itemId}";
         Map<String, Object> parameters = Map.of("itemId", itemId);
         log.debug("Getting item {} for user {}", itemId, userId);
-        return get(path, userId, parameters).getBody();
+        passThrough(HttpMethod.GET, path, userId, parameters, response);
     }
 
-    @SuppressWarnings("unchecked")
-    public Object getItemsByOwner(Long ownerId, int from, int size) {
+    public void getItemsByOwner(Long ownerId, int from, int size, HttpServletResponse response) throws IOException {
         String path = "/items?from={from}&size={size}";
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
         log.debug("Getting items for owner {} from {} size {}", ownerId, from, size);
-        ResponseEntity<Object> response = get(path, ownerId, parameters);
+        passThrough(HttpMethod.GET, path, ownerId, parameters, response);
+    }
 
-        if (response.getBody() instanceof List) {
-            try {
-                List<Map<String, Object>> itemsList = (List<Map<String, Object>>) response.getBody();
-                return dtoConverter.toGatewayItemWithBookingsDtoList(itemsList);
-            } catch (ClassCastException e) {
-                log.error("Error casting response to List<Map<String, Object>>", e);
-                return response.getBody();
-            }
+    public void getItemAvailability(Long itemId, @Nullable LocalDateTime from, @Nullable LocalDateTime to,
+                                    String granularity, HttpServletResponse response) throws IOException {
+        StringBuilder path = new StringBuilder("/items/{itemId}/availability?granularity={granularity}");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("itemId", itemId);
+        parameters.put("granularity", granularity);
+        if (from != null) {
+            path.append("&from={from}");
+            parameters.put("from", from);
         }
-
-        return response.getBody();
+        if (to != null) {
+            path.append("&to={to}");
+            parameters.put("to", to);
+        }
+        log.debug("Getting availability of item {} from {} to {} by {}", itemId, from, to, granularity);
+        passThrough(HttpMethod.GET, path.toString(), null, parameters, response);
     }
 
-    public Object searchItems(String text, int from, int size) {
+    public Object searchItems(String text, String mode, int from, int size, @Nullable LocalDateTime start,
+                              @Nullable LocalDateTime end) {
         if (text == null || text.isBlank()) {
             return List.of();
         }
 
-        String path = "/items/search?text={text}&from={from}&size={size}";
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        log.debug("Searching items with text '{}' from {} size {}", text, from, size);
-        return get(path, null, parameters).getBody();
+        StringBuilder path = new StringBuilder("/items/search?text={text}&mode={mode}&from={from}&size={size}");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("mode", mode);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (start != null && end != null) {
+            path.append("&start={start}&end={end}");
+            parameters.put("start", start);
+            parameters.put("end", end);
+        }
+        log.debug("Searching items with text '{}' in mode {} from {} size {} free from {} to {}",
+                text, mode, from, size, start, end);
+        return get(path.toString(), null, parameters).getBody();
+    }
+
+    public void importItems(Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("Importing items for user {} from {}", userId, request.getContentType());
+        passThrough(HttpMethod.POST, "/items/import", userId, null, request, response);
+    }
+
+    public void suggestItems(String prefix, int limit, HttpServletResponse response) throws IOException {
+        String path = "/items/suggest?prefix={prefix}&limit={limit}";
+        Map<String, Object> parameters = Map.of("prefix", prefix, "limit", limit);
+        log.debug("Suggesting item names for prefix '{}' limit {}", prefix, limit);
+        passThrough(HttpMethod.GET, path, null, parameters, response);
     }
 
     public ResponseEntity<Object> addComment(Long itemId, CommentDto commentDto, Long authorId) {
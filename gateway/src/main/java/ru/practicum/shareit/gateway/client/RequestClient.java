@@ -1,12 +1,15 @@
 package ru.practicum.shareit.gateway.client;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.shareit.gateway.converter.DtoConverter;
 import ru.practicum.shareit.gateway.dto.ItemRequestDto;
 
+import java.io.IOException;
 import java.util.Map;
 
 @Service
@@ -27,20 +30,20 @@ public class RequestClient extends BaseClient {
         return post(path, requestorId, requestBody);
     }
 
-    public ResponseEntity<Object> getRequestsByRequestor(Long requestorId) {
+    public void getRequestsByRequestor(Long requestorId, HttpServletResponse response) throws IOException {
         String path = "/requests";
         log.debug("Getting requests for requestor {}", requestorId);
-        return get(path, requestorId);
+        passThrough(HttpMethod.GET, path, requestorId, null, response);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size) {
+    public void getAllRequests(Long userId, int from, int size, HttpServletResponse response) throws IOException {
         String path = "/requests/all?from={from}&size={size}";
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
         log.debug("Getting all requests for user {}", userId);
-        return get(path, userId, parameters);
+        passThrough(HttpMethod.GET, path, userId, parameters, response);
     }
 
     public ResponseEntity<Object> getRequestById(Long requestId, Long userId) {
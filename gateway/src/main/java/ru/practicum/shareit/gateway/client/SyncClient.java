@@ -0,0 +1,29 @@
+package ru.practicum.shareit.gateway.client;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class SyncClient extends BaseClient {
+
+    public SyncClient(RestTemplate rest) {
+        super(rest);
+    }
+
+    public void getChanges(Long userId, long since, int limit, HttpServletResponse response) throws IOException {
+        String path = "/sync?since={since}&limit={limit}";
+        Map<String, Object> parameters = Map.of(
+                "since", since,
+                "limit", limit
+        );
+        log.debug("Getting changes for user {} since version {}", userId, since);
+        passThrough(HttpMethod.GET, path, userId, parameters, response);
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.gateway.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.client.BookingClient;
 import ru.practicum.shareit.gateway.dto.BookingDto;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -24,6 +30,14 @@ public class BookingController {
         return bookingClient.createBooking(bookingDto, bookerId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestBody @Size(min = 1, max = 1000)
+                                                 List<@NotNull BookingDto> bookingDtos,
+                                                 @RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        log.info("Gateway: POST /bookings/batch | User-ID: {}, Size: {}", bookerId, bookingDtos.size());
+        return bookingClient.createBookings(bookingDtos, bookerId);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@PathVariable Long bookingId,
                                                  @RequestParam boolean approved,
@@ -32,6 +46,14 @@ public class BookingController {
         return bookingClient.approveBooking(bookingId, ownerId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBookings(@RequestBody @Size(min = 1, max = 1000) List<@NotNull Long> bookingIds,
+                                                  @RequestParam boolean approved,
+                                                  @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("Gateway: PATCH /bookings/batch | Size: {}, Approved: {}", bookingIds.size(), approved);
+        return bookingClient.approveBookings(bookingIds, ownerId, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -40,20 +62,50 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                                      @RequestParam(defaultValue = "ALL") String state,
-                                                      @RequestParam(defaultValue = "0") int from,
-                                                      @RequestParam(defaultValue = "10") int size) {
+    public void getBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                    @RequestParam(defaultValue = "ALL") String state,
+                                    @RequestParam(defaultValue = "0") int from,
+                                    @RequestParam(defaultValue = "10") int size,
+                                    @RequestParam(required = false) String cursor,
+                                    HttpServletResponse response) throws IOException {
         log.info("Gateway: GET /bookings | State: {}", state);
-        return bookingClient.getBookingsByBooker(bookerId, state, from, size);
+        bookingClient.getBookingsByBooker(bookerId, state, from, size, cursor, response);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                     @RequestParam(defaultValue = "ALL") String state,
-                                                     @RequestParam(defaultValue = "0") int from,
-                                                     @RequestParam(defaultValue = "10") int size) {
+    public void getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                   @RequestParam(defaultValue = "ALL") String state,
+                                   @RequestParam(defaultValue = "0") int from,
+                                   @RequestParam(defaultValue = "10") int size,
+                                   @RequestParam(required = false) String cursor,
+                                   HttpServletResponse response) throws IOException {
         log.info("Gateway: GET /bookings/owner | State: {}", state);
-        return bookingClient.getBookingsByOwner(ownerId, state, from, size);
+        bookingClient.getBookingsByOwner(ownerId, state, from, size, cursor, response);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookingSummaryByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        log.info("Gateway: GET /bookings/summary | User-ID: {}", bookerId);
+        return bookingClient.getBookingSummaryByBooker(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getBookingSummaryByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("Gateway: GET /bookings/owner/summary | User-ID: {}", ownerId);
+        return bookingClient.getBookingSummaryByOwner(ownerId);
+    }
+
+    @GetMapping("/export")
+    public void exportBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                       HttpServletResponse response) throws IOException {
+        log.info("Gateway: GET /bookings/export | User-ID: {}", bookerId);
+        bookingClient.exportBookingsByBooker(bookerId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Gateway: GET /bookings/owner/export | User-ID: {}", ownerId);
+        bookingClient.exportBookingsByOwner(ownerId, response);
     }
-}
\ No newline at end of file
+}
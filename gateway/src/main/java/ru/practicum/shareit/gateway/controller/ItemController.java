@@ -1,14 +1,20 @@
 package ru.practicum.shareit.gateway.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.client.ItemClient;
 import ru.practicum.shareit.gateway.dto.*;
+import ru.practicum.shareit.gateway.validation.ValidationException;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +33,14 @@ public class ItemController {
         return itemClient.createItem(itemDto, ownerId);
     }
 
+    @PostMapping("/import")
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Gateway: POST /items/import | User-ID: {} | Content-Type: {}", userId, request.getContentType());
+        itemClient.importItems(userId, request, response);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@PathVariable Long itemId,
                                              @Valid @RequestBody CommentDto commentDto,
@@ -47,26 +61,57 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public Object getItemById(@PathVariable Long itemId,
-                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public void getItemById(@PathVariable Long itemId,
+                            @RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletResponse response) throws IOException {
         log.info("Gateway: GET /items/{}", itemId);
-        return itemClient.getItemById(itemId, userId);
+        itemClient.getItemById(itemId, userId, response);
     }
 
     @GetMapping
-    public Object getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                  @RequestParam(defaultValue = "0") int from,
-                                  @RequestParam(defaultValue = "10") int size) {
+    public void getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = "10") int size,
+                                HttpServletResponse response) throws IOException {
         log.info("Gateway: GET /items | Owner-ID: {}", ownerId);
-        return itemClient.getItemsByOwner(ownerId, from, size);
+        itemClient.getItemsByOwner(ownerId, from, size, response);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public void getItemAvailability(@PathVariable Long itemId,
+                                    @RequestParam(required = false)
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam(required = false)
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                    @RequestParam(defaultValue = "HOUR") String granularity,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Gateway: GET /items/{}/availability | From: {} | To: {} | Granularity: {}",
+                itemId, from, to, granularity);
+        itemClient.getItemAvailability(itemId, from, to, granularity, response);
     }
 
     @GetMapping("/search")
     public Object searchItems(@RequestParam String text,
+                              @RequestParam(defaultValue = "SUBSTRING") String mode,
                               @RequestParam(defaultValue = "0") int from,
-                              @RequestParam(defaultValue = "10") int size) {
-        log.info("Gateway: GET /items/search | Text: '{}'", text);
-        return itemClient.searchItems(text, from, size);
+                              @RequestParam(defaultValue = "10") int size,
+                              @RequestParam(required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                              @RequestParam(required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Gateway: GET /items/search | Text: '{}' | Mode: {} | Start: {} | End: {}", text, mode, start, end);
+        if ((start == null) != (end == null) || (start != null && !end.isAfter(start))) {
+            throw new ValidationException("Both start and end are required and end must be after start");
+        }
+        return itemClient.searchItems(text, mode, from, size, start, end);
+    }
+
+    @GetMapping("/suggest")
+    public void suggestItems(@RequestParam String prefix,
+                             @RequestParam(defaultValue = "10") int limit,
+                             HttpServletResponse response) throws IOException {
+        log.info("Gateway: GET /items/suggest | Prefix: '{}' | Limit: {}", prefix, limit);
+        itemClient.suggestItems(prefix, limit, response);
     }
 
     private String getUpdatedFields(ItemUpdateDto itemDto) {
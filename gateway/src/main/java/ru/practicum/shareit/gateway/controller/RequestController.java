@@ -1,5 +1,6 @@
 package ru.practicum.shareit.gateway.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -7,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -23,21 +26,20 @@ public class RequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsByRequestor(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
+    public void getRequestsByRequestor(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                       HttpServletResponse response) throws IOException {
         log.info("Gateway: GET /requests | User-ID: {}", requestorId);
-        ResponseEntity<Object> response = requestClient.getRequestsByRequestor(requestorId);
-        log.info("Gateway: Response type: {}, status: {}",
-                response.getBody() != null ? response.getBody().getClass() : "null",
-                response.getStatusCode());
-        return response;
+        requestClient.getRequestsByRequestor(requestorId, response);
+        log.info("Gateway: Response status: {}", response.getStatus());
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "10") int size) {
+    public void getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @RequestParam(defaultValue = "0") int from,
+                               @RequestParam(defaultValue = "10") int size,
+                               HttpServletResponse response) throws IOException {
         log.info("Gateway: GET /requests/all | From: {}, Size: {}", from, size);
-        return requestClient.getAllRequests(userId, from, size);
+        requestClient.getAllRequests(userId, from, size, response);
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.gateway.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.gateway.client.SyncClient;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping(path = "/sync")
+@RequiredArgsConstructor
+@Slf4j
+public class SyncController {
+    private final SyncClient syncClient;
+
+    @GetMapping
+    public void getChanges(@RequestHeader("X-Sharer-User-Id") Long userId,
+                           @RequestParam(defaultValue = "0") long since,
+                           @RequestParam(defaultValue = "500") int limit,
+                           HttpServletResponse response) throws IOException {
+        log.info("Gateway: GET /sync | User-ID: {} | Since: {}", userId, since);
+        syncClient.getChanges(userId, since, limit, response);
+    }
+}
@@ -1,13 +1,23 @@
 package ru.practicum.shareit.server.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.booking.dto.BookingSummaryDto;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 
 @RestController
@@ -16,7 +26,10 @@ import java.util.List;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestBody BookingDto bookingDto,
@@ -25,6 +38,13 @@ public class BookingController {
         return bookingService.createBooking(bookingDto, bookerId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                      @RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        log.info("POST /bookings/batch | User-ID: {}, Size: {}", bookerId, bookingDtos.size());
+        return bookingService.createBookings(bookingDtos, bookerId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto approveBooking(@PathVariable Long bookingId,
                                              @RequestParam boolean approved,
@@ -33,6 +53,14 @@ public class BookingController {
         return bookingService.approveBooking(bookingId, ownerId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveBookings(@RequestBody List<Long> bookingIds,
+                                                          @RequestParam boolean approved,
+                                                          @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("PATCH /bookings/batch | Size: {}, Approved: {}", bookingIds.size(), approved);
+        return bookingService.approveBookings(bookingIds, ownerId, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(@PathVariable Long bookingId,
                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -41,22 +69,106 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                                        @RequestParam(defaultValue = "ALL") String state,
-                                                        @RequestParam(defaultValue = "0") int from,
-                                                        @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByBooker(
+            @RequestHeader("X-Sharer-User-Id") Long bookerId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /bookings | State: {}", state);
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        return bookingService.getBookingsByBooker(bookerId, state, pageRequest);
+        List<BookingResponseDto> bookings = bookingService.getBookingsByBooker(
+                bookerId, state, toCursor(cursor), toPageRequest(cursor, from, size));
+        return withNextCursor(bookings, cursor, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                       @RequestParam(defaultValue = "ALL") String state,
-                                                       @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /bookings/owner | State: {}", state);
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        return bookingService.getBookingsByOwner(ownerId, state, pageRequest);
+        List<BookingResponseDto> bookings = bookingService.getBookingsByOwner(
+                ownerId, state, toCursor(cursor), toPageRequest(cursor, from, size));
+        return withNextCursor(bookings, cursor, size);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookingSummaryByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        log.info("GET /bookings/summary | User-ID: {}", bookerId);
+        return bookingService.getBookingSummaryByBooker(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getBookingSummaryByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("GET /bookings/owner/summary | User-ID: {}", ownerId);
+        return bookingService.getBookingSummaryByOwner(ownerId);
+    }
+
+    /**
+     * Streams the whole booking history of the booker as NDJSON, one booking per line, newest first.
+     */
+    @GetMapping("/export")
+    public void exportBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                       HttpServletResponse response) throws IOException {
+        log.info("GET /bookings/export | User-ID: {}", bookerId);
+        bookingService.exportBookingsByBooker(bookerId, booking -> writeExportLine(response, booking));
+        finishExport(response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                      HttpServletResponse response) throws IOException {
+        log.info("GET /bookings/owner/export | User-ID: {}", ownerId);
+        bookingService.exportBookingsByOwner(ownerId, booking -> writeExportLine(response, booking));
+        finishExport(response);
+    }
+
+    // The content type is set with the first line, so a failure before it still gets the usual JSON error;
+    // the servlet buffer sends the lines on as it fills up
+    private void writeExportLine(HttpServletResponse response, BookingResponseDto booking) {
+        try {
+            startExport(response);
+            Writer writer = response.getWriter();
+            writer.write(objectMapper.writeValueAsString(booking));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void finishExport(HttpServletResponse response) throws IOException {
+        startExport(response);
+        response.getWriter().flush();
+    }
+
+    private void startExport(HttpServletResponse response) {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+        }
+    }
+
+    // Without a cursor parameter lists are paged by offset as before; an empty cursor requests the first keyset page
+    private BookingCursor toCursor(String cursor) {
+        return cursor == null ? BookingCursor.FIRST : BookingCursor.decode(cursor);
+    }
+
+    private PageRequest toPageRequest(String cursor, int from, int size) {
+        return cursor == null ? PageRequest.of(from / size, size) : PageRequest.of(0, size);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings,
+                                                                    String cursor, int size) {
+        if (cursor == null || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        BookingResponseDto last = bookings.get(bookings.size() - 1);
+        String nextCursor = BookingCursor.after(last.getStart(), last.getId()).encode();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .body(bookings);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.server.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingDecisionView {
+    Long getId();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+
+    Long getItemId();
+
+    BookingStatus getStatus();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.sync.ChangeLog;
+import ru.practicum.shareit.server.sync.ChangeType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves WAITING bookings whose start has passed to {@link BookingStatus#EXPIRED}.
+ * Each run updates at most {@code max-batches-per-run} chunks of {@code batch-size} rows,
+ * every chunk in its own short transaction, pausing between chunks to spread the write load.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class BookingExpiryJob {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeLog changeLog;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+
+    private final Counter expiredCounter;
+    private final DistributionSummary expiredPerRun;
+    private final Timer runTimer;
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            TransactionTemplate transactionTemplate,
+                            ChangeLog changeLog,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                            @Value("${shareit.booking.expiry.max-batches-per-run:100}") int maxBatchesPerRun,
+                            @Value("${shareit.booking.expiry.pause-between-batches:PT0.1S}") Duration pauseBetweenBatches) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.changeLog = changeLog;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.expiredCounter = Counter.builder("shareit.booking.expiry.rows")
+                .description("WAITING bookings moved to EXPIRED")
+                .register(meterRegistry);
+        this.expiredPerRun = DistributionSummary.builder("shareit.booking.expiry.run.rows")
+                .description("WAITING bookings moved to EXPIRED per run")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.booking.expiry.run")
+                .description("Duration of a booking expiry run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.expiry.interval:PT1M}",
+            fixedDelayString = "${shareit.booking.expiry.interval:PT1M}")
+    public void expireWaitingBookings() {
+        int total = runTimer.record(this::runBatches);
+        expiredPerRun.record(total);
+        if (total > 0) {
+            log.info("Expired {} WAITING bookings", total);
+        }
+    }
+
+    private int runBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            BatchResult result = transactionTemplate.execute(status -> expireBatch(now));
+            total += result.expired();
+            expiredCounter.increment(result.expired());
+            // Rows decided concurrently are skipped, so only a short read means there is nothing left
+            if (result.found() < batchSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // The rows are read first so that the change log gets the booker and the owner of every expired booking;
+    // a booking approved or rejected between the read and the update keeps its status and is not logged
+    private BatchResult expireBatch(LocalDateTime now) {
+        List<BookingDecisionView> candidates = bookingRepository.findWaitingStartedBefore(
+                now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<Long> candidateIds = candidates.stream()
+                .map(BookingDecisionView::getId)
+                .collect(Collectors.toList());
+        int updated = bookingRepository.updateWaitingStatus(candidateIds, BookingStatus.EXPIRED);
+        if (updated < candidates.size()) {
+            Set<Long> expiredIds = new HashSet<>(
+                    bookingRepository.findIdsWithStatus(candidateIds, BookingStatus.EXPIRED));
+            candidates = candidates.stream()
+                    .filter(booking -> expiredIds.contains(booking.getId()))
+                    .collect(Collectors.toList());
+        }
+        candidates.forEach(booking ->
+                changeLog.record(ChangeType.BOOKING, booking.getId(), booking.getBookerId(), booking.getOwnerId()));
+        return new BatchResult(candidateIds.size(), updated);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record BatchResult(int found, int expired) {
+    }
+}
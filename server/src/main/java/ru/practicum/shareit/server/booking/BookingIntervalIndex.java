@@ -0,0 +1,172 @@
+package ru.practicum.shareit.server.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of approved booking periods per item.
+ * Each item keeps a sorted set of non-overlapping busy spans, loaded lazily from the database
+ * on first access, so overlap checks are answered in O(log n) without a query.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+
+    private final ConcurrentMap<Long, ItemIntervals> intervalsByItemId = new ConcurrentHashMap<>();
+
+    public boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = getLoadedIntervals(itemId);
+        synchronized (intervals) {
+            intervals.pruneBefore(LocalDateTime.now());
+            return intervals.overlaps(start, end);
+        }
+    }
+
+    /**
+     * Atomically checks the period against approved bookings of the item and occupies it.
+     * When called inside a transaction the period is released again if the transaction rolls back.
+     */
+    public boolean tryReserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = getLoadedIntervals(itemId);
+        synchronized (intervals) {
+            intervals.pruneBefore(LocalDateTime.now());
+            if (intervals.overlaps(start, end)) {
+                return false;
+            }
+            intervals.add(start, end);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(itemId, start, end);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public void release(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsByItemId.get(itemId);
+        if (intervals == null) {
+            return;
+        }
+        synchronized (intervals) {
+            intervals.remove(start, end);
+        }
+    }
+
+    /**
+     * Returns the items among the given ones that have an approved booking overlapping the period.
+     * Items that are not loaded yet are read from the database with a single query.
+     */
+    public Set<Long> findConflicting(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        loadAll(itemIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> conflicting = new HashSet<>();
+        for (Long itemId : itemIds) {
+            ItemIntervals intervals = intervalsByItemId.get(itemId);
+            synchronized (intervals) {
+                intervals.pruneBefore(now);
+                if (intervals.overlaps(start, end)) {
+                    conflicting.add(itemId);
+                }
+            }
+        }
+        return conflicting;
+    }
+
+    private void loadAll(Collection<Long> itemIds) {
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> {
+                    ItemIntervals intervals = intervalsByItemId.get(itemId);
+                    return intervals == null || !intervals.loaded;
+                })
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Booking>> approvedByItemId = bookingRepository
+                .findByItemIdInAndStatusAndEndAfterOrderByStartAsc(missing, BookingStatus.APPROVED, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (Long itemId : missing) {
+            ItemIntervals intervals = intervalsByItemId.computeIfAbsent(itemId, id -> new ItemIntervals());
+            synchronized (intervals) {
+                if (!intervals.loaded) {
+                    approvedByItemId.getOrDefault(itemId, Collections.emptyList())
+                            .forEach(booking -> intervals.merge(booking.getStart(), booking.getEnd()));
+                    intervals.loaded = true;
+                }
+            }
+        }
+        log.debug("Loaded approved booking periods for {} items", missing.size());
+    }
+
+    private ItemIntervals getLoadedIntervals(Long itemId) {
+        ItemIntervals intervals = intervalsByItemId.computeIfAbsent(itemId, id -> new ItemIntervals());
+        synchronized (intervals) {
+            if (!intervals.loaded) {
+                List<Booking> approved = bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                        itemId, BookingStatus.APPROVED, LocalDateTime.now());
+                approved.forEach(booking -> intervals.merge(booking.getStart(), booking.getEnd()));
+                intervals.loaded = true;
+                log.debug("Loaded {} approved booking periods for item {}", approved.size(), itemId);
+            }
+        }
+        return intervals;
+    }
+
+    private static class ItemIntervals {
+        private final TreeMap<LocalDateTime, LocalDateTime> endByStart = new TreeMap<>();
+        private boolean loaded;
+
+        private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = endByStart.lowerEntry(end);
+            return candidate != null && candidate.getValue().isAfter(start);
+        }
+
+        private void add(LocalDateTime start, LocalDateTime end) {
+            endByStart.put(start, end);
+        }
+
+        private void merge(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> last = endByStart.lastEntry();
+            if (last != null && last.getValue().isAfter(start)) {
+                if (end.isAfter(last.getValue())) {
+                    endByStart.put(last.getKey(), end);
+                }
+                return;
+            }
+            endByStart.put(start, end);
+        }
+
+        private void remove(LocalDateTime start, LocalDateTime end) {
+            endByStart.remove(start, end);
+        }
+
+        private void pruneBefore(LocalDateTime now) {
+            Map.Entry<LocalDateTime, LocalDateTime> first = endByStart.firstEntry();
+            while (first != null && !first.getValue().isAfter(now)) {
+                endByStart.pollFirstEntry();
+                first = endByStart.firstEntry();
+            }
+        }
+    }
+}
@@ -1,31 +1,149 @@
 package ru.practicum.shareit.server.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.booking.dto.BookingSummaryDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
+    // Keyset condition for lists ordered by (start DESC, id DESC); the first page uses BookingCursor.FIRST
+    String AFTER_CURSOR = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+
+    String NEWEST_FIRST = "ORDER BY b.start DESC, b.id DESC";
+
+    // List queries select the response columns directly instead of hydrating Booking, Item and User entities
+    String BOOKING_ROWS = "SELECT new ru.practicum.shareit.server.booking.dto.BookingResponseDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
+
+    // Counts for every list state in one pass; the conditions mirror the state queries below
+    String SUMMARY_COUNTS = "SELECT new ru.practicum.shareit.server.booking.dto.BookingSummaryDto(" +
+            "COUNT(b), " +
+            "COUNT(CASE WHEN b.start < :now AND b.end > :now THEN 1 END), " +
+            "COUNT(CASE WHEN b.end < :now THEN 1 END), " +
+            "COUNT(CASE WHEN b.start > :now THEN 1 END), " +
+            "COUNT(CASE WHEN b.status = 'WAITING' THEN 1 END), " +
+            "COUNT(CASE WHEN b.status = 'REJECTED' THEN 1 END), " +
+            "COUNT(CASE WHEN b.status = 'EXPIRED' THEN 1 END)) " +
+            "FROM Booking b ";
+
+    @Query(SUMMARY_COUNTS + "WHERE b.booker.id = :bookerId")
+    BookingSummaryDto findBookerSummary(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(SUMMARY_COUNTS + "WHERE b.ownerId = :ownerId")
+    BookingSummaryDto findOwnerSummary(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(BOOKING_ROWS + "WHERE b.booker.id = :bookerId " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findBookerBookings(@Param("bookerId") Long bookerId,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.booker.id = :bookerId " +
+            "AND b.start < :now AND b.end > :now " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findBookerCurrentBookings(@Param("bookerId") Long bookerId,
+                                                       @Param("now") LocalDateTime now,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.booker.id = :bookerId " +
+            "AND b.end < :now " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findBookerPastBookings(@Param("bookerId") Long bookerId,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.booker.id = :bookerId " +
+            "AND b.start > :now " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findBookerFutureBookings(@Param("bookerId") Long bookerId,
+                                                      @Param("now") LocalDateTime now,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.booker.id = :bookerId " +
+            "AND b.status = :status " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findBookerBookingsByStatus(@Param("bookerId") Long bookerId,
+                                                        @Param("status") BookingStatus status,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.ownerId = :ownerId " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findOwnerBookings(@Param("ownerId") Long ownerId,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.ownerId = :ownerId " +
+            "AND b.start < :now AND b.end > :now " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findOwnerCurrentBookings(@Param("ownerId") Long ownerId,
+                                                      @Param("now") LocalDateTime now,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.ownerId = :ownerId " +
+            "AND b.end < :now " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findOwnerPastBookings(@Param("ownerId") Long ownerId,
+                                                   @Param("now") LocalDateTime now,
+                                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.ownerId = :ownerId " +
+            "AND b.start > :now " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findOwnerFutureBookings(@Param("ownerId") Long ownerId,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @Query(BOOKING_ROWS + "WHERE b.ownerId = :ownerId " +
+            "AND b.status = :status " +
+            AFTER_CURSOR + NEWEST_FIRST)
+    List<BookingResponseDto> findOwnerBookingsByStatus(@Param("ownerId") Long ownerId,
+                                                       @Param("status") BookingStatus status,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    // Exports read the whole history in one query; the driver fetches the rows in chunks of this size
+    String EXPORT_FETCH_SIZE = "500";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(BOOKING_ROWS + "WHERE b.booker.id = :bookerId " + NEWEST_FIRST)
+    Stream<BookingResponseDto> streamBookerBookings(@Param("bookerId") Long bookerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(BOOKING_ROWS + "WHERE b.ownerId = :ownerId " + NEWEST_FIRST)
+    Stream<BookingResponseDto> streamOwnerBookings(@Param("ownerId") Long ownerId);
+
+    @Query(BOOKING_ROWS + "WHERE b.id IN :ids")
+    List<BookingResponseDto> findBookingRows(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b " +
             "WHERE b.booker.id = :userId " +
@@ -36,17 +154,47 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                               @Param("itemId") Long itemId,
                               @Param("currentTime") LocalDateTime currentTime);
 
-    Optional<Booking> findFirstByItemIdAndEndBeforeAndStatusOrderByEndDesc(
-            Long itemId, LocalDateTime end, BookingStatus status);
-
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-            Long itemId, LocalDateTime start, BookingStatus status);
-
-    List<Booking> findByItemIdIn(List<Long> itemIds);// Дополнительные методы для поиска
-
-
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
-}
\ No newline at end of file
+    // Each correlated subquery is a top-1 lookup on (item_id, status, end_date/start_date),
+    // so the cost depends on the number of items, not on their booking history. The ORDER BY repeats
+    // item_id and status because H2 reads the index in order only when the sort starts at its first column
+    @Query(value = "SELECT i.id AS itemId, " +
+            "lb.id AS lastBookingId, lb.booker_id AS lastBookerId, " +
+            "nb.id AS nextBookingId, nb.booker_id AS nextBookerId " +
+            "FROM items i " +
+            "LEFT JOIN bookings lb ON lb.id = (" +
+            "SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date < :now " +
+            "ORDER BY b.item_id, b.status, b.end_date DESC LIMIT 1) " +
+            "LEFT JOIN bookings nb ON nb.id = (" +
+            "SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > :now " +
+            "ORDER BY b.item_id, b.status, b.start_date ASC LIMIT 1) " +
+            "WHERE i.id IN (:itemIds)", nativeQuery = true)
+    List<LastNextBookingView> findLastAndNextApprovedBookings(@Param("itemIds") List<Long> itemIds,
+                                                              @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.item.id AS itemId, COUNT(b) AS bookings FROM Booking b GROUP BY b.item.id")
+    List<ItemBookingCountView> countBookingsByItem();
+
+    String DECISION_VIEWS = "SELECT b.id AS id, b.ownerId AS ownerId, b.booker.id AS bookerId, " +
+            "b.item.id AS itemId, b.status AS status, b.start AS start, b.end AS end FROM Booking b ";
+
+    @Query(DECISION_VIEWS + "WHERE b.id IN :ids")
+    List<BookingDecisionView> findDecisionViews(@Param("ids") Collection<Long> ids);
+
+    @Query(DECISION_VIEWS + "WHERE b.status = 'WAITING' AND b.start < :now ORDER BY b.start, b.id")
+    List<BookingDecisionView> findWaitingStartedBefore(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids AND b.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = :status")
+    List<Long> findIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    List<Booking> findByItemIdAndStatusAndEndAfterOrderByStartAsc(Long itemId, BookingStatus status,
+                                                                  LocalDateTime end);
+
+    List<Booking> findByItemIdInAndStatusAndEndAfterOrderByStartAsc(Collection<Long> itemIds, BookingStatus status,
+                                                                    LocalDateTime end);
+}
@@ -1,20 +1,40 @@
 package ru.practicum.shareit.server.booking;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.booking.dto.BookingSummaryDto;
 
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingResponseDto createBooking(BookingDto bookingDto, Long bookerId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long bookerId);
+
     BookingResponseDto approveBooking(Long bookingId, Long ownerId, boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(List<Long> bookingIds, Long ownerId, boolean approved);
+
     BookingResponseDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state, Pageable pageable);
+    List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state, BookingCursor cursor, Pageable pageable);
+
+    List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state, BookingCursor cursor, Pageable pageable);
+
+    BookingSummaryDto getBookingSummaryByBooker(Long bookerId);
+
+    BookingSummaryDto getBookingSummaryByOwner(Long ownerId);
+
+    /**
+     * Passes the whole booking history of the booker, newest first, to the consumer row by row
+     * while the rows are still being read from the database.
+     */
+    void exportBookingsByBooker(Long bookerId, Consumer<BookingResponseDto> consumer);
 
-    List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state, Pageable pageable);
+    void exportBookingsByOwner(Long ownerId, Consumer<BookingResponseDto> consumer);
 }
\ No newline at end of file
@@ -5,27 +5,43 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemSuggestIndex;
+import ru.practicum.shareit.server.item.ItemViewCache;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.sync.ChangeLog;
+import ru.practicum.shareit.server.sync.ChangeType;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingSlotIndex bookingSlotIndex;
+    private final ItemViewCache itemViewCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ChangeLog changeLog;
 
     @Override
     @Transactional
@@ -38,45 +54,105 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NoSuchElementException("Item not found with id: " + bookingDto.getItemId()));
 
-        if (!item.getAvailable()) {
-            throw new ValidationException("Item is not available for booking");
-        }
-
-        if (item.getOwner().getId().equals(bookerId)) {
-            throw new NoSuchElementException("Owner cannot book their own item");
-        }
-
         LocalDateTime start = bookingDto.getStart();
         LocalDateTime end = bookingDto.getEnd();
-        LocalDateTime now = LocalDateTime.now();
-
-        if (start == null || end == null) {
-            throw new ValidationException("Start and end dates cannot be null");
-        }
-
-        if (start.isBefore(now)) {
-            throw new ValidationException("Start date must be in present or future");
-        }
-
-        if (!end.isAfter(start)) {
-            throw new ValidationException("End date must be after start date");
-        }
-
-        if (end.isBefore(now)) {
-            throw new ValidationException("End date must be in future");
-        }
+        validateNewBooking(item, bookerId, start, end, LocalDateTime.now());
 
         Booking booking = new Booking();
         booking.setStart(start);
         booking.setEnd(end);
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStatus(BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
         log.info("Booking created with id: {}", savedBooking.getId());
+        changeLog.record(ChangeType.BOOKING, savedBooking.getId(), bookerId, savedBooking.getOwnerId());
+        itemSuggestIndex.recordBookingsAfterCommit(List.of(item.getId()));
+
+        return BookingMapper.toBookingResponseDto(savedBooking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long bookerId) {
+        log.info("Creating a batch of {} bookings by user {}", bookingDtos.size(), bookerId);
+
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("A batch must contain from 1 to " + MAX_BATCH_SIZE + " bookings");
+        }
+        if (bookingDtos.contains(null)) {
+            throw new ValidationException("A batch must not contain null bookings");
+        }
+
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with id: " + bookerId));
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        Map<Long, List<Integer>> candidatesByItemId = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                if (bookingDto.getItemId() == null) {
+                    throw new ValidationException("Item ID cannot be null");
+                }
+                Item item = itemsById.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NoSuchElementException("Item not found with id: " + bookingDto.getItemId());
+                }
+                validateNewBooking(item, bookerId, bookingDto.getStart(), bookingDto.getEnd(), now);
+                candidatesByItemId.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(i);
+            } catch (ValidationException | NoSuchElementException e) {
+                results[i] = BookingBatchResultDto.failed(i, e.getMessage());
+            }
+        }
+
+        // Sort and sweep per item: an entry is rejected if it starts before the end of the last accepted one
+        List<Integer> accepted = new ArrayList<>();
+        for (List<Integer> indexes : candidatesByItemId.values()) {
+            indexes.sort(Comparator.comparing(i -> bookingDtos.get(i).getStart()));
+            LocalDateTime acceptedUntil = null;
+            for (Integer i : indexes) {
+                BookingDto bookingDto = bookingDtos.get(i);
+                if (acceptedUntil != null && bookingDto.getStart().isBefore(acceptedUntil)) {
+                    results[i] = BookingBatchResultDto.failed(i, "Overlaps another booking of the item in this batch");
+                    continue;
+                }
+                acceptedUntil = bookingDto.getEnd();
+                accepted.add(i);
+            }
+        }
+        Collections.sort(accepted);
+
+        List<Long> bookingIds = insertWaitingBookings(accepted.stream()
+                .map(bookingDtos::get)
+                .collect(Collectors.toList()), itemsById, booker);
+
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            BookingDto bookingDto = bookingDtos.get(i);
+            Item item = itemsById.get(bookingDto.getItemId());
+            results[i] = BookingBatchResultDto.created(i, new BookingResponseDto(
+                    bookingIds.get(k), bookingDto.getStart(), bookingDto.getEnd(), BookingStatus.WAITING,
+                    item.getId(), item.getName(), booker.getId(), booker.getName()));
+            changeLog.record(ChangeType.BOOKING, bookingIds.get(k), bookerId, item.getOwner().getId());
+        }
 
-        return toBookingResponseDto(savedBooking);
+        itemSuggestIndex.recordBookingsAfterCommit(accepted.stream()
+                .map(i -> bookingDtos.get(i).getItemId())
+                .collect(Collectors.toList()));
+        log.info("Batch by user {}: {} of {} bookings created", bookerId, accepted.size(), bookingDtos.size());
+        return Arrays.asList(results);
     }
 
     @Override
@@ -87,7 +163,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NoSuchElementException("Booking not found with id: " + bookingId));
 
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+        if (!booking.getOwnerId().equals(ownerId)) {
             throw new SecurityException("Only item owner can approve booking");
         }
 
@@ -95,12 +171,82 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking is not in WAITING status");
         }
 
+        if (approved && !bookingIntervalIndex.tryReserve(
+                booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+            throw new ValidationException("Item is already booked for the requested period");
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        changeLog.record(ChangeType.BOOKING, bookingId, booking.getBooker().getId(), ownerId);
+        itemViewCache.invalidateAfterCommit(booking.getItem().getId());
+        if (approved) {
+            bookingSlotIndex.occupyAfterCommit(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        }
         log.info("Booking {} updated to status: {}", bookingId, updatedBooking.getStatus());
 
-        return toBookingResponseDto(updatedBooking);
+        return BookingMapper.toBookingResponseDto(updatedBooking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(List<Long> bookingIds, Long ownerId, boolean approved) {
+        log.info("Approving {} bookings by owner {}: {}", bookingIds.size(), ownerId, approved);
+
+        Set<Long> distinctIds = new LinkedHashSet<>(bookingIds);
+        if (distinctIds.isEmpty() || distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("A batch must contain from 1 to " + MAX_BATCH_SIZE + " bookings");
+        }
+        if (distinctIds.contains(null)) {
+            throw new ValidationException("Booking ID cannot be null");
+        }
+
+        Map<Long, BookingDecisionView> bookingsById = bookingRepository.findDecisionViews(distinctIds)
+                .stream()
+                .collect(Collectors.toMap(BookingDecisionView::getId, Function.identity()));
+
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<BookingDecisionResultDto> results = new ArrayList<>(distinctIds.size());
+        List<BookingDecisionView> decided = new ArrayList<>();
+        List<Long> decidedIds = new ArrayList<>();
+        Set<Long> decidedItemIds = new HashSet<>();
+        for (Long bookingId : distinctIds) {
+            BookingDecisionView booking = bookingsById.get(bookingId);
+            if (booking == null) {
+                results.add(BookingDecisionResultDto.failed(bookingId, "Booking not found with id: " + bookingId));
+            } else if (!booking.getOwnerId().equals(ownerId)) {
+                results.add(BookingDecisionResultDto.failed(bookingId, "Only item owner can approve booking"));
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                results.add(BookingDecisionResultDto.failed(bookingId, "Booking is not in WAITING status"));
+            } else if (approved && !bookingIntervalIndex.tryReserve(
+                    booking.getItemId(), booking.getStart(), booking.getEnd())) {
+                results.add(BookingDecisionResultDto.failed(bookingId,
+                        "Item is already booked for the requested period"));
+            } else {
+                results.add(BookingDecisionResultDto.decided(bookingId, newStatus));
+                decided.add(booking);
+                decidedIds.add(bookingId);
+                decidedItemIds.add(booking.getItemId());
+                if (approved) {
+                    bookingSlotIndex.occupyAfterCommit(booking.getItemId(), booking.getStart(), booking.getEnd());
+                }
+            }
+        }
+
+        if (!decidedIds.isEmpty()) {
+            int updated = bookingRepository.updateWaitingStatus(decidedIds, newStatus);
+            if (updated != decidedIds.size()) {
+                throw new IllegalArgumentException("Some of the bookings were decided concurrently, retry the request");
+            }
+            decided.forEach(booking ->
+                    changeLog.record(ChangeType.BOOKING, booking.getId(), booking.getBookerId(), ownerId));
+            decidedItemIds.forEach(itemViewCache::invalidateAfterCommit);
+        }
+
+        log.info("Owner {}: {} of {} bookings updated to status {}", ownerId, decidedIds.size(),
+                distinctIds.size(), newStatus);
+        return results;
     }
 
     @Override
@@ -111,114 +257,207 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NoSuchElementException("Booking not found with id: " + bookingId));
 
         boolean isBooker = booking.getBooker().getId().equals(userId);
-        boolean isOwner = booking.getItem().getOwner().getId().equals(userId);
+        boolean isOwner = booking.getOwnerId().equals(userId);
 
         if (!isBooker && !isOwner) {
             throw new NoSuchElementException("Access denied to booking");
         }
 
-        return toBookingResponseDto(booking);
+        return BookingMapper.toBookingResponseDto(booking);
     }
 
     @Override
-    public List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state, Pageable pageable) {
+    public List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state, BookingCursor cursor,
+                                                        Pageable pageable) {
         log.info("Getting bookings for booker {} with state {}", bookerId, state);
 
         userRepository.findById(bookerId)
                 .orElseThrow(() -> new NoSuchElementException("User not found with id: " + bookerId));
 
-        List<Booking> bookings;
+        List<BookingResponseDto> bookings;
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        Long cursorId = cursor.getId();
 
         switch (state.toUpperCase()) {
             case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(bookerId, pageable);
+                bookings = bookingRepository.findBookerBookings(bookerId, cursorStart, cursorId, pageable);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        bookerId, now, now, pageable);
+                bookings = bookingRepository.findBookerCurrentBookings(
+                        bookerId, now, cursorStart, cursorId, pageable);
                 break;
             case "PAST":
-                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId, now, pageable);
+                bookings = bookingRepository.findBookerPastBookings(bookerId, now, cursorStart, cursorId, pageable);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId, now, pageable);
+                bookings = bookingRepository.findBookerFutureBookings(bookerId, now, cursorStart, cursorId, pageable);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        bookerId, BookingStatus.WAITING, pageable);
+                bookings = bookingRepository.findBookerBookingsByStatus(
+                        bookerId, BookingStatus.WAITING, cursorStart, cursorId, pageable);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        bookerId, BookingStatus.REJECTED, pageable);
+                bookings = bookingRepository.findBookerBookingsByStatus(
+                        bookerId, BookingStatus.REJECTED, cursorStart, cursorId, pageable);
+                break;
+            case "EXPIRED":
+                bookings = bookingRepository.findBookerBookingsByStatus(
+                        bookerId, BookingStatus.EXPIRED, cursorStart, cursorId, pageable);
                 break;
             default:
                 throw new ValidationException("Unknown state: " + state);
         }
 
-        return bookings.stream()
-                .map(this::toBookingResponseDto)
-                .collect(Collectors.toList());
+        return bookings;
     }
 
     @Override
-    public List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state, Pageable pageable) {
+    public List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state, BookingCursor cursor,
+                                                       Pageable pageable) {
         log.info("Getting bookings for owner {} with state {}", ownerId, state);
 
         userRepository.findById(ownerId)
                 .orElseThrow(() -> new NoSuchElementException("User not found with id: " + ownerId));
 
-        List<Booking> bookings;
+        List<BookingResponseDto> bookings;
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        Long cursorId = cursor.getId();
 
         switch (state.toUpperCase()) {
             case "ALL":
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId, pageable);
+                bookings = bookingRepository.findOwnerBookings(ownerId, cursorStart, cursorId, pageable);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        ownerId, now, now, pageable);
+                bookings = bookingRepository.findOwnerCurrentBookings(
+                        ownerId, now, cursorStart, cursorId, pageable);
                 break;
             case "PAST":
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now, pageable);
+                bookings = bookingRepository.findOwnerPastBookings(ownerId, now, cursorStart, cursorId, pageable);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now, pageable);
+                bookings = bookingRepository.findOwnerFutureBookings(ownerId, now, cursorStart, cursorId, pageable);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        ownerId, BookingStatus.WAITING, pageable);
+                bookings = bookingRepository.findOwnerBookingsByStatus(
+                        ownerId, BookingStatus.WAITING, cursorStart, cursorId, pageable);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        ownerId, BookingStatus.REJECTED, pageable);
+                bookings = bookingRepository.findOwnerBookingsByStatus(
+                        ownerId, BookingStatus.REJECTED, cursorStart, cursorId, pageable);
+                break;
+            case "EXPIRED":
+                bookings = bookingRepository.findOwnerBookingsByStatus(
+                        ownerId, BookingStatus.EXPIRED, cursorStart, cursorId, pageable);
                 break;
             default:
                 throw new ValidationException("Unknown state: " + state);
         }
 
-        return bookings.stream()
-                .map(this::toBookingResponseDto)
-                .collect(Collectors.toList());
+        return bookings;
+    }
+
+    @Override
+    public BookingSummaryDto getBookingSummaryByBooker(Long bookerId) {
+        log.info("Getting booking summary for booker {}", bookerId);
+
+        if (!userRepository.existsById(bookerId)) {
+            throw new NoSuchElementException("User not found with id: " + bookerId);
+        }
+
+        return bookingRepository.findBookerSummary(bookerId, LocalDateTime.now());
+    }
+
+    @Override
+    public BookingSummaryDto getBookingSummaryByOwner(Long ownerId) {
+        log.info("Getting booking summary for owner {}", ownerId);
+
+        if (!userRepository.existsById(ownerId)) {
+            throw new NoSuchElementException("User not found with id: " + ownerId);
+        }
+
+        return bookingRepository.findOwnerSummary(ownerId, LocalDateTime.now());
+    }
+
+    // The stream has to be consumed inside the read-only transaction; rows are DTOs, so the persistence
+    // context stays empty however long the history is
+    @Override
+    public void exportBookingsByBooker(Long bookerId, Consumer<BookingResponseDto> consumer) {
+        log.info("Exporting bookings for booker {}", bookerId);
+
+        if (!userRepository.existsById(bookerId)) {
+            throw new NoSuchElementException("User not found with id: " + bookerId);
+        }
+
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamBookerBookings(bookerId)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void exportBookingsByOwner(Long ownerId, Consumer<BookingResponseDto> consumer) {
+        log.info("Exporting bookings for owner {}", ownerId);
+
+        if (!userRepository.existsById(ownerId)) {
+            throw new NoSuchElementException("User not found with id: " + ownerId);
+        }
+
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamOwnerBookings(ownerId)) {
+            bookings.forEach(consumer);
+        }
     }
 
-    private BookingResponseDto toBookingResponseDto(Booking booking) {
-        BookingResponseDto dto = new BookingResponseDto();
-        dto.setId(booking.getId());
-        dto.setStart(booking.getStart());
-        dto.setEnd(booking.getEnd());
-        dto.setStatus(booking.getStatus());
+    private void validateNewBooking(Item item, Long bookerId, LocalDateTime start, LocalDateTime end,
+                                    LocalDateTime now) {
+        if (!item.getAvailable()) {
+            throw new ValidationException("Item is not available for booking");
+        }
 
-        BookingResponseDto.BookingItemDto itemDto = new BookingResponseDto.BookingItemDto();
-        itemDto.setId(booking.getItem().getId());
-        itemDto.setName(booking.getItem().getName());
-        dto.setItem(itemDto);
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new NoSuchElementException("Owner cannot book their own item");
+        }
 
-        BookingResponseDto.BookingUserDto userDto = new BookingResponseDto.BookingUserDto();
-        userDto.setId(booking.getBooker().getId());
-        userDto.setName(booking.getBooker().getName());
-        dto.setBooker(userDto);
+        if (start == null || end == null) {
+            throw new ValidationException("Start and end dates cannot be null");
+        }
+
+        if (start.isBefore(now)) {
+            throw new ValidationException("Start date must be in present or future");
+        }
 
-        return dto;
+        if (!end.isAfter(start)) {
+            throw new ValidationException("End date must be after start date");
+        }
+
+        if (end.isBefore(now)) {
+            throw new ValidationException("End date must be in future");
+        }
+
+        if (bookingIntervalIndex.hasConflict(item.getId(), start, end)) {
+            throw new ValidationException("Item is already booked for the requested period");
+        }
+    }
+
+    // Ids come from a pooled sequence, so the inserts are sent in JDBC batches when the transaction flushes
+    private List<Long> insertWaitingBookings(List<BookingDto> bookingDtos, Map<Long, Item> itemsById, User booker) {
+        List<Booking> bookings = bookingDtos.stream()
+                .map(bookingDto -> {
+                    Item item = itemsById.get(bookingDto.getItemId());
+                    Booking booking = new Booking();
+                    booking.setStart(bookingDto.getStart());
+                    booking.setEnd(bookingDto.getEnd());
+                    booking.setItem(item);
+                    booking.setBooker(booker);
+                    booking.setOwnerId(item.getOwner().getId());
+                    booking.setStatus(BookingStatus.WAITING);
+                    return booking;
+                })
+                .collect(Collectors.toList());
+
+        return bookingRepository.saveAll(bookings)
+                .stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
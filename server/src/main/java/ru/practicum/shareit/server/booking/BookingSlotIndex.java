@@ -0,0 +1,140 @@
+package ru.practicum.shareit.server.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.exception.ValidationException;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto.SlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory calendar of approved bookings per item.
+ * Each item keeps a compressed bitmap of occupied hours, counted from the epoch, loaded lazily from the
+ * database on first access. An hour is occupied if any approved booking overlaps it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSlotIndex {
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    private final BookingRepository bookingRepository;
+
+    private final ConcurrentMap<Long, ItemSlots> slotsByItemId = new ConcurrentHashMap<>();
+
+    /**
+     * Splits the range, widened to whole slots, into runs of free and busy slots.
+     * Slots that have already ended are reported busy since they can no longer be booked.
+     */
+    public List<SlotDto> getSlots(Long itemId, LocalDateTime from, LocalDateTime to, SlotGranularity granularity) {
+        if (!to.isAfter(from)) {
+            throw new ValidationException("End of the range must be after its start");
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new ValidationException("Range must not be longer than " + MAX_RANGE.toDays() + " days");
+        }
+
+        int step = granularity.getHours();
+        long firstHour = Math.floorDiv(toHourFloor(from), step) * step;
+        long lastHour = Math.floorDiv(toHourCeil(to) + step - 1, step) * step;
+        long currentHour = toHourFloor(LocalDateTime.now());
+
+        List<SlotDto> slots = new ArrayList<>();
+        ItemSlots itemSlots = getLoadedSlots(itemId);
+        synchronized (itemSlots) {
+            itemSlots.pruneBefore(currentHour);
+            for (long hour = firstHour; hour < lastHour; hour += step) {
+                long slotEnd = hour + step;
+                boolean free = slotEnd > currentHour && !itemSlots.occupied.intersects(hour, slotEnd);
+                SlotDto last = slots.isEmpty() ? null : slots.get(slots.size() - 1);
+                if (last != null && last.isFree() == free) {
+                    last.setEnd(fromHour(slotEnd));
+                } else {
+                    slots.add(new SlotDto(fromHour(hour), fromHour(slotEnd), free));
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Marks the booking period occupied once the surrounding transaction commits,
+     * or immediately when there is no transaction.
+     */
+    public void occupyAfterCommit(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            occupy(itemId, start, end);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                occupy(itemId, start, end);
+            }
+        });
+    }
+
+    // Items that were never queried are skipped: their bitmap is read from the database on first access
+    public void occupy(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemSlots itemSlots = slotsByItemId.get(itemId);
+        if (itemSlots == null) {
+            return;
+        }
+        synchronized (itemSlots) {
+            if (itemSlots.loaded) {
+                itemSlots.occupied.add(toHourFloor(start), toHourCeil(end));
+            }
+        }
+    }
+
+    private ItemSlots getLoadedSlots(Long itemId) {
+        ItemSlots itemSlots = slotsByItemId.computeIfAbsent(itemId, id -> new ItemSlots());
+        synchronized (itemSlots) {
+            if (!itemSlots.loaded) {
+                List<Booking> approved = bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                        itemId, BookingStatus.APPROVED, LocalDateTime.now());
+                approved.forEach(booking ->
+                        itemSlots.occupied.add(toHourFloor(booking.getStart()), toHourCeil(booking.getEnd())));
+                itemSlots.occupied.runOptimize();
+                itemSlots.loaded = true;
+                log.debug("Loaded {} approved booking periods into the slot bitmap of item {}", approved.size(), itemId);
+            }
+        }
+        return itemSlots;
+    }
+
+    private static long toHourFloor(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static long toHourCeil(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC) + SECONDS_PER_HOUR - 1, SECONDS_PER_HOUR);
+    }
+
+    private static LocalDateTime fromHour(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+    }
+
+    private static class ItemSlots {
+        private final RoaringBitmap occupied = new RoaringBitmap();
+        private boolean loaded;
+
+        private void pruneBefore(long hour) {
+            if (!occupied.isEmpty() && occupied.first() < hour) {
+                occupied.remove(0, hour);
+            }
+        }
+    }
+}
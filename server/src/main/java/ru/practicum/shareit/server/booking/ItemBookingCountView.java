@@ -0,0 +1,7 @@
+package ru.practicum.shareit.server.booking;
+
+public interface ItemBookingCountView {
+    Long getItemId();
+
+    Long getBookings();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.server.booking;
+
+public interface LastNextBookingView {
+    Long getItemId();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+}
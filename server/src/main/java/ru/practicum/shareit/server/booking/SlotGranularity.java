@@ -0,0 +1,16 @@
+package ru.practicum.shareit.server.booking;
+
+public enum SlotGranularity {
+    HOUR(1),
+    DAY(24);
+
+    private final int hours;
+
+    SlotGranularity(int hours) {
+        this.hours = hours;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a booking batch: the created booking, or the reason it was rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private int index;
+    private BookingResponseDto booking;
+    private String error;
+
+    public static BookingBatchResultDto created(int index, BookingResponseDto booking) {
+        return new BookingBatchResultDto(index, booking, null);
+    }
+
+    public static BookingBatchResultDto failed(int index, String error) {
+        return new BookingBatchResultDto(index, null, error);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.server.booking.BookingStatus;
+
+/**
+ * Outcome of one booking of a bulk approval: its new status, or the reason it was left unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+
+    public static BookingDecisionResultDto decided(Long bookingId, BookingStatus status) {
+        return new BookingDecisionResultDto(bookingId, status, null);
+    }
+
+    public static BookingDecisionResultDto failed(Long bookingId, String error) {
+        return new BookingDecisionResultDto(bookingId, null, error);
+    }
+}
@@ -18,6 +18,12 @@ public class BookingResponseDto {
     private BookingUserDto booker;
     private BookingStatus status;
 
+    // Used by the JPQL constructor expressions of the booking list queries
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, new BookingItemDto(itemId, itemName), new BookingUserDto(bookerId, bookerName), status);
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of bookings in each state of the booking list filters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummaryDto {
+    private long all;
+    private long current;
+    private long past;
+    private long future;
+    private long waiting;
+    private long rejected;
+    private long expired;
+}
@@ -1,16 +1,24 @@
 package ru.practicum.shareit.server.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemInOrderByCreatedDesc(List<Item> items);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemIdInOrderByCreatedDesc(List<Long> itemIds);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
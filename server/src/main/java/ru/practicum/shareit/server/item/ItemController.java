@@ -1,12 +1,23 @@
 package ru.practicum.shareit.server.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.booking.SlotGranularity;
 import ru.practicum.shareit.server.item.dto.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,7 +27,10 @@ import java.util.List;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final int DEFAULT_AVAILABILITY_DAYS = 7;
+
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto createItem(@Valid @RequestBody ItemDto itemDto,
@@ -26,6 +40,23 @@ public class ItemController {
         return itemService.createItem(itemDto, ownerId);
     }
 
+    /**
+     * Streams the NDJSON report of the import: rejected rows and progress after every chunk, then the totals.
+     * The upload is NDJSON or CSV, told apart by its content type.
+     */
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("POST /items/import | User-ID: {} | Content-Type: {}", userId, contentType);
+
+        ItemImportReader rows = ItemImportReader.open(contentType, request.getReader(), objectMapper);
+        ItemImportEventDto summary = itemService.importItems(rows, userId, event -> writeReportLine(response, event));
+        writeReportLine(response, summary);
+        log.info("POST /items/import | Created {} of {} items", summary.getCreated(), summary.getProcessed());
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentResponseDto addComment(@PathVariable Long itemId,
                                          @Valid @RequestBody CommentDto commentDto,
@@ -71,18 +102,63 @@ public class ItemController {
         return result;
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                   @RequestParam(defaultValue = "HOUR") SlotGranularity granularity) {
+        log.info("GET /items/{}/availability | From: {} | To: {} | Granularity: {}", itemId, from, to, granularity);
+
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        return itemService.getItemAvailability(itemId, start, end, granularity);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam(defaultValue = "SUBSTRING") SearchMode mode,
                                      @RequestParam(defaultValue = "0") int from,
-                                     @RequestParam(defaultValue = "10") int size) {
-        log.info("GET /items/search | Text: '{}' | From: {} | Size: {}", text, from, size);
-
-        List<ItemDto> result = itemService.searchItems(text, from, size);
+                                     @RequestParam(defaultValue = "10") int size,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("GET /items/search | Text: '{}' | Mode: {} | From: {} | Size: {} | Start: {} | End: {}",
+                text, mode, from, size, start, end);
+
+        List<ItemDto> result = itemService.searchItems(text, mode, from, size, start, end);
         log.info("GET /items/search | Found {} items", result.size());
 
         return result;
     }
 
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItems(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /items/suggest | Prefix: '{}' | Limit: {}", prefix, limit);
+        return itemService.suggestItems(prefix, limit);
+    }
+
+    // Nothing is written before the first line, so a failure before it still gets a regular error response
+    private void writeReportLine(HttpServletResponse response, ItemImportEventDto event) {
+        try {
+            if (response.getContentType() == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding("UTF-8");
+            }
+            Writer writer = response.getWriter();
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.write('\n');
+            if (event.getType() != ItemImportEventDto.Type.ERROR) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private String getUpdatedFields(ItemUpdateDto itemDto) {
         List<String> fields = new ArrayList<>();
         if (itemDto.getName() != null) fields.add("name");
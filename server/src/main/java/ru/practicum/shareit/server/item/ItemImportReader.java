@@ -0,0 +1,248 @@
+package ru.practicum.shareit.server.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.server.exception.ValidationException;
+import ru.practicum.shareit.server.item.dto.ItemImportRowDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Reads import rows one at a time from an NDJSON or CSV upload, so the upload is never held in memory.
+ * A row that cannot be parsed comes back with an error instead of stopping the import.
+ */
+public abstract class ItemImportReader implements Iterator<ItemImportReader.Row> {
+    public static final MediaType CSV = new MediaType("text", "csv");
+
+    protected final BufferedReader reader;
+    private Row pending;
+    private boolean finished;
+
+    protected ItemImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static ItemImportReader open(MediaType contentType, BufferedReader reader, ObjectMapper objectMapper)
+            throws IOException {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonReader(reader, objectMapper);
+        }
+        if (CSV.isCompatibleWith(contentType)) {
+            return new CsvReader(reader);
+        }
+        throw new ValidationException("Unsupported import format: " + contentType);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && !finished) {
+            try {
+                pending = readRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = pending == null;
+        }
+        return pending != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = pending;
+        pending = null;
+        return row;
+    }
+
+    /**
+     * Returns the next row, or null at the end of the upload.
+     */
+    protected abstract Row readRow() throws IOException;
+
+    /**
+     * Parsed row with its line number in the upload; either the item or the parse error is set.
+     */
+    public record Row(long line, ItemImportRowDto item, String error) {
+        static Row parsed(long line, ItemImportRowDto item) {
+            return new Row(line, item, null);
+        }
+
+        static Row failed(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    private static class NdjsonReader extends ItemImportReader {
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private NdjsonReader(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected Row readRow() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+
+            try {
+                return Row.parsed(line, objectMapper.readValue(text, ItemImportRowDto.class));
+            } catch (JsonProcessingException e) {
+                return Row.failed(line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 records: comma separated, fields optionally quoted, quotes inside quoted fields doubled.
+     * The first record names the columns; name, description and available are required.
+     */
+    private static class CsvReader extends ItemImportReader {
+        private static final Set<String> REQUIRED_COLUMNS = Set.of("name", "description", "available");
+        private static final Set<String> COLUMNS = Set.of("name", "description", "available", "requestid", "ownerid");
+
+        private final Map<String, Integer> indexByColumn = new HashMap<>();
+        private long line;
+        private long recordLine;
+        private boolean unterminated;
+
+        private CsvReader(BufferedReader reader) throws IOException {
+            super(reader);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new ValidationException("CSV header is missing");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if (!COLUMNS.contains(column)) {
+                    throw new ValidationException("Unknown CSV column: " + header.get(i));
+                }
+                indexByColumn.put(column, i);
+            }
+            if (!indexByColumn.keySet().containsAll(REQUIRED_COLUMNS)) {
+                throw new ValidationException("CSV header must contain the columns " + REQUIRED_COLUMNS);
+            }
+        }
+
+        @Override
+        protected Row readRow() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty() && !unterminated);
+            if (fields == null) {
+                return null;
+            }
+
+            if (unterminated) {
+                return Row.failed(recordLine, "Unterminated quoted field");
+            }
+            if (fields.size() != indexByColumn.size()) {
+                return Row.failed(recordLine,
+                        "Expected " + indexByColumn.size() + " fields but found " + fields.size());
+            }
+
+            try {
+                return Row.parsed(recordLine, new ItemImportRowDto(
+                        field(fields, "name"),
+                        field(fields, "description"),
+                        parseBoolean(field(fields, "available")),
+                        parseId(field(fields, "requestid"), "requestId"),
+                        parseId(field(fields, "ownerid"), "ownerId")));
+            } catch (IllegalArgumentException e) {
+                return Row.failed(recordLine, e.getMessage());
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = indexByColumn.get(column);
+            return index != null ? fields.get(index) : null;
+        }
+
+        private static Boolean parseBoolean(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            String trimmed = value.trim();
+            if (!trimmed.equalsIgnoreCase("true") && !trimmed.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("Invalid value of available: " + value);
+            }
+            return Boolean.parseBoolean(trimmed);
+        }
+
+        private static Long parseId(String value, String column) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value of " + column + ": " + value);
+            }
+        }
+
+        // Returns the fields of the next record, or null at the end of the upload. Quoted fields may span lines.
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+
+            recordLine = line + 1;
+            unterminated = false;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        unterminated = true;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                        field.append('"');
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+}
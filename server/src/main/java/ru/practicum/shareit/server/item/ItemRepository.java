@@ -4,14 +4,21 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.server.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
-    List<Item> findByOwnerId(Long ownerId, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.server.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i LEFT JOIN i.request r " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    List<ItemDto> findItemDtosByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = true AND " +
@@ -19,13 +26,33 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
     List<Item> searchAvailableItems(@Param("text") String text);
 
-    @Query("SELECT i FROM Item i " +
+    @Query("SELECT new ru.practicum.shareit.server.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i LEFT JOIN i.request r " +
             "WHERE i.available = true AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
             "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchAvailableItems(@Param("text") String text, Pageable pageable);
+    List<ItemDto> searchAvailableItems(@Param("text") String text, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.server.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i LEFT JOIN i.request r " +
+            "WHERE i.available = true AND " +
+            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) AND " +
+            "NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i AND b.status = 'APPROVED' AND b.start < :end AND b.end > :start) " +
+            "ORDER BY i.id")
+    List<ItemDto> searchAvailableItemsFreeBetween(@Param("text") String text,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end,
+                                                  Pageable pageable);
 
     List<Item> findByRequestId(Long requestId);
 
-    List<Item> findByRequestIdIn(List<Long> requestIds);
+    @Query("SELECT new ru.practicum.shareit.server.item.dto.ItemForRequestDto(" +
+            "i.id, i.name, i.description, i.available, i.owner.id, i.request.id) " +
+            "FROM Item i " +
+            "WHERE i.request.id IN :requestIds")
+    List<ItemForRequestDto> findItemsForRequests(@Param("requestIds") List<Long> requestIds);
+
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
\ No newline at end of file
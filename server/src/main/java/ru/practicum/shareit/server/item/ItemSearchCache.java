@@ -0,0 +1,86 @@
+package ru.practicum.shareit.server.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of text search pages keyed by the normalized query, the search mode and the page.
+ * Every key carries the current generation, which is bumped after commits that can change search results,
+ * so pages computed before such a change are never served again and age out of the cache.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache<SearchKey, List<ItemDto>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.cache.item-search.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.cache.item-search.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "itemSearch")
+                .description("Share of lookups served from the cache since startup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lowercases the text, trims it and collapses inner whitespace to single spaces.
+     */
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public List<ItemDto> get(String query, SearchMode mode, int offset, int size, Supplier<List<ItemDto>> loader) {
+        SearchKey key = new SearchKey(generation.get(), query, mode, offset, size);
+        return cache.get(key, k -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Starts a new generation once the surrounding transaction commits,
+     * or immediately when there is no transaction.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    public void invalidate() {
+        log.debug("Invalidating cached search pages, generation {}", generation.incrementAndGet());
+    }
+
+    private record SearchKey(long generation, String query, SearchMode mode, int offset, int size) {
+    }
+}
@@ -0,0 +1,469 @@
+package ru.practicum.shareit.server.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index over names and descriptions of available items.
+ * Substring queries intersect the posting bitmaps of their character trigrams and verify the remaining
+ * candidates, with the same case-insensitive semantics as {@link ItemRepository#searchAvailableItems}.
+ * Prefix and fuzzy queries work on whole words: prefixes are ranges of the sorted word dictionary, and
+ * fuzzy candidates are dictionary words sharing enough padded bigrams with the query word, verified with a
+ * bounded edit distance that also counts adjacent transpositions as one edit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int EXCLUSION_BATCH_SIZE = 500;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchCache itemSearchCache;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, IndexedItem> itemsById = new TreeMap<>();
+    private final Map<String, RoaringBitmap> postingsByGram = new HashMap<>();
+    private final NavigableMap<String, RoaringBitmap> postingsByWord = new TreeMap<>();
+    // Dictionary words by word length and padded bigram, see lengthBigramKey
+    private final Map<String, Set<String>> wordsByLengthBigram = new HashMap<>();
+    private final Set<Long> updatedDuringRebuild = new HashSet<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building item search index");
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            itemsById.clear();
+            postingsByGram.clear();
+            postingsByWord.clear();
+            wordsByLengthBigram.clear();
+            updatedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(
+                    lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Item item : batch) {
+                    if (!updatedDuringRebuild.contains(item.getId())) {
+                        add(new IndexedItem(ItemMapper.toItemDto(item)));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            postingsByGram.values().forEach(RoaringBitmap::runOptimize);
+            postingsByWord.values().forEach(RoaringBitmap::runOptimize);
+            updatedDuringRebuild.clear();
+            ready = true;
+            log.info("Item search index built: {} items, {} trigrams, {} words",
+                    itemsById.size(), postingsByGram.size(), postingsByWord.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Pages cached while the index was not ready came from the substring fallback, also for prefix and fuzzy
+        itemSearchCache.invalidate();
+    }
+
+    /**
+     * Applies the item state to the index once the surrounding transaction commits,
+     * or immediately when there is no transaction.
+     */
+    public void updateAfterCommit(ItemDto item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(item);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(item);
+            }
+        });
+    }
+
+    public void update(ItemDto item) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                updatedDuringRebuild.add(item.getId());
+            }
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(new IndexedItem(item));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, SearchMode mode, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        int offset = (from / size) * size;
+
+        lock.readLock().lock();
+        try {
+            List<ItemDto> result = new ArrayList<>();
+            int skipped = 0;
+            for (IndexedItem item : candidates(query, mode)) {
+                if (mode == SearchMode.SUBSTRING && !item.matches(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(item.toItemDto());
+                if (result.size() == size) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same matching and paging as {@link #search(String, SearchMode, int, int)}, leaving out the items reported
+     * by {@code excluded}. It is called with batches of matching ids, in id order, outside of the index lock.
+     */
+    public List<ItemDto> search(String text, SearchMode mode, int from, int size,
+                                Function<List<Long>, Set<Long>> excluded) {
+        String query = text.toLowerCase(Locale.ROOT);
+        int offset = (from / size) * size;
+
+        List<IndexedItem> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (IndexedItem item : candidates(query, mode)) {
+                if (mode != SearchMode.SUBSTRING || item.matches(query)) {
+                    matches.add(item);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ItemDto> result = new ArrayList<>();
+        int skipped = 0;
+        for (int i = 0; i < matches.size() && result.size() < size; i += EXCLUSION_BATCH_SIZE) {
+            List<IndexedItem> batch = matches.subList(i, Math.min(i + EXCLUSION_BATCH_SIZE, matches.size()));
+            Set<Long> excludedIds = excluded.apply(batch.stream()
+                    .map(item -> item.id)
+                    .collect(Collectors.toList()));
+            for (IndexedItem item : batch) {
+                if (excludedIds.contains(item.id)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(item.toItemDto());
+                if (result.size() == size) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Items in id order; substring candidates still have to be verified, word matches are exact
+    private Iterable<IndexedItem> candidates(String query, SearchMode mode) {
+        if (mode == SearchMode.SUBSTRING && query.length() < GRAM_LENGTH) {
+            return itemsById.values();
+        }
+
+        RoaringBitmap ids = switch (mode) {
+            case SUBSTRING -> findGramCandidates(query);
+            case PREFIX -> findWordMatches(query, this::findPrefixMatches);
+            case FUZZY -> findWordMatches(query, this::findFuzzyMatches);
+        };
+        return () -> new Iterator<>() {
+            private final Iterator<Integer> idIterator = ids.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return idIterator.hasNext();
+            }
+
+            @Override
+            public IndexedItem next() {
+                return itemsById.get((long) idIterator.next());
+            }
+        };
+    }
+
+    private RoaringBitmap findGramCandidates(String query) {
+        List<RoaringBitmap> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            RoaringBitmap posting = postingsByGram.get(gram);
+            if (posting == null) {
+                return new RoaringBitmap();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+
+        RoaringBitmap candidates = postings.get(0).clone();
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.and(postings.get(i));
+        }
+        return candidates;
+    }
+
+    // Items matching every word of the query
+    private RoaringBitmap findWordMatches(String query, Function<String, RoaringBitmap> wordMatcher) {
+        Set<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        RoaringBitmap result = null;
+        for (String queryWord : queryWords) {
+            RoaringBitmap matches = wordMatcher.apply(queryWord);
+            result = result == null ? matches : RoaringBitmap.and(result, matches);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap findPrefixMatches(String prefix) {
+        return RoaringBitmap.or(postingsByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .iterator());
+    }
+
+    private RoaringBitmap findFuzzyMatches(String queryWord) {
+        int maxDistance = maxEditDistance(queryWord);
+        if (maxDistance == 0) {
+            RoaringBitmap posting = postingsByWord.get(queryWord);
+            return posting == null ? new RoaringBitmap() : posting;
+        }
+
+        // Every edit changes at most three padded bigrams (a transposition), so a close word keeps the rest
+        Set<String> queryBigrams = paddedBigrams(queryWord);
+        int minShared = queryBigrams.size() - 3 * maxDistance;
+        Map<String, Integer> sharedByWord = new HashMap<>();
+        int minLength = Math.max(1, queryWord.length() - maxDistance);
+        for (int length = minLength; length <= queryWord.length() + maxDistance; length++) {
+            for (String bigram : queryBigrams) {
+                Set<String> words = wordsByLengthBigram.get(lengthBigramKey(length, bigram));
+                if (words != null) {
+                    words.forEach(word -> sharedByWord.merge(word, 1, Integer::sum));
+                }
+            }
+        }
+
+        List<RoaringBitmap> postings = new ArrayList<>();
+        sharedByWord.forEach((word, shared) -> {
+            if (shared >= minShared && isWithinDistance(queryWord, word, maxDistance)) {
+                postings.add(postingsByWord.get(word));
+            }
+        });
+        return RoaringBitmap.or(postings.iterator());
+    }
+
+    private void add(IndexedItem item) {
+        int id = Math.toIntExact(item.id);
+        itemsById.put(item.id, item);
+        for (String gram : item.grams()) {
+            postingsByGram.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+        }
+        for (String word : item.words()) {
+            postingsByWord.computeIfAbsent(word, w -> {
+                paddedBigrams(w).forEach(bigram -> wordsByLengthBigram
+                        .computeIfAbsent(lengthBigramKey(w.length(), bigram), key -> new HashSet<>())
+                        .add(w));
+                return new RoaringBitmap();
+            }).add(id);
+        }
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem existing = itemsById.remove(itemId);
+        if (existing == null) {
+            return;
+        }
+        int id = Math.toIntExact(itemId);
+        for (String gram : existing.grams()) {
+            RoaringBitmap posting = postingsByGram.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postingsByGram.remove(gram);
+                }
+            }
+        }
+        for (String word : existing.words()) {
+            RoaringBitmap posting = postingsByWord.get(word);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postingsByWord.remove(word);
+                    for (String bigram : paddedBigrams(word)) {
+                        String key = lengthBigramKey(word.length(), bigram);
+                        Set<String> words = wordsByLengthBigram.get(key);
+                        words.remove(word);
+                        if (words.isEmpty()) {
+                            wordsByLengthBigram.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int maxEditDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    // Optimal string alignment distance (Levenshtein plus adjacent transpositions), giving up once a row
+    // exceeds the limit
+    private static boolean isWithinDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return false;
+        }
+
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxDistance;
+    }
+
+    private static Set<String> grams(String... values) {
+        Set<String> grams = new HashSet<>();
+        for (String value : values) {
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> words(String... values) {
+        Set<String> words = new HashSet<>();
+        for (String value : values) {
+            for (String word : WORD_SEPARATOR.split(value)) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    // Bigrams are always two characters long, so the length prefix cannot make two keys collide
+    private static String lengthBigramKey(int length, String bigram) {
+        return length + bigram;
+    }
+
+    private static Set<String> paddedBigrams(String word) {
+        String padded = "^" + word + "$";
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    private static class IndexedItem {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final String lowerName;
+        private final String lowerDescription;
+
+        private IndexedItem(ItemDto item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.requestId = item.getRequestId();
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+            this.lowerDescription = description.toLowerCase(Locale.ROOT);
+        }
+
+        private Set<String> grams() {
+            return ItemSearchIndex.grams(lowerName, lowerDescription);
+        }
+
+        private Set<String> words() {
+            return ItemSearchIndex.words(lowerName, lowerDescription);
+        }
+
+        private boolean matches(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+
+        private ItemDto toItemDto() {
+            return new ItemDto(id, name, description, true, requestId);
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package ru.practicum.shareit.server.item;
 
+import ru.practicum.shareit.server.booking.SlotGranularity;
 import ru.practicum.shareit.server.item.dto.*;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto createItem(ItemDto itemDto, Long ownerId);
 
+    /**
+     * Creates items row by row from an upload, reporting rejected rows and progress to the consumer as it goes.
+     * Returns the totals.
+     */
+    ItemImportEventDto importItems(Iterator<ItemImportReader.Row> rows, Long userId,
+                                   Consumer<ItemImportEventDto> events);
+
     // Используем ItemUpdateDto вместо ItemDto
     ItemDto updateItem(Long itemId, ItemUpdateDto itemDto, Long ownerId);
 
@@ -14,7 +25,12 @@ public interface ItemService {
 
     List<ItemWithBookingsDto> getItemsByOwner(Long ownerId, int from, int size);
 
-    List<ItemDto> searchItems(String text, int from, int size);
+    List<ItemDto> searchItems(String text, SearchMode mode, int from, int size, LocalDateTime start, LocalDateTime end);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, int limit);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                            SlotGranularity granularity);
 
     CommentResponseDto addComment(Long itemId, CommentDto commentDto, Long authorId);
 }
\ No newline at end of file
@@ -1,24 +1,34 @@
 package ru.practicum.shareit.server.item;
 
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.server.booking.Booking;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.BookingIntervalIndex;
 import ru.practicum.shareit.server.booking.BookingRepository;
-import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.BookingSlotIndex;
+import ru.practicum.shareit.server.booking.LastNextBookingView;
+import ru.practicum.shareit.server.booking.SlotGranularity;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.request.ItemRequest;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.sync.ChangeLog;
+import ru.practicum.shareit.server.sync.ChangeType;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,11 +36,26 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemViewCache itemViewCache;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final BookingSlotIndex bookingSlotIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeLog changeLog;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -41,17 +66,7 @@ public class ItemServiceImpl implements ItemService {
             User owner = userRepository.findById(ownerId)
                     .orElseThrow(() -> new NoSuchElementException("User not found with id: " + ownerId));
 
-            if (itemDto.getName() == null || itemDto.getName().isBlank()) {
-                throw new ValidationException("Item name cannot be blank");
-            }
-
-            if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
-                throw new ValidationException("Item description cannot be blank");
-            }
-
-            if (itemDto.getAvailable() == null) {
-                throw new ValidationException("Item availability cannot be null");
-            }
+            validateNewItem(itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
 
             Item item = new Item();
             item.setName(itemDto.getName().trim());
@@ -70,8 +85,15 @@ public class ItemServiceImpl implements ItemService {
 
             Item savedItem = itemRepository.save(item);
             log.info("Item created successfully with id: {}", savedItem.getId());
+            recordItemChange(savedItem);
 
-            return ItemMapper.toItemDto(savedItem);
+            ItemDto savedItemDto = ItemMapper.toItemDto(savedItem);
+            itemSearchIndex.updateAfterCommit(savedItemDto);
+            itemSuggestIndex.updateAfterCommit(savedItemDto);
+            if (savedItem.getAvailable()) {
+                itemSearchCache.invalidateAfterCommit();
+            }
+            return savedItemDto;
 
         } catch (NoSuchElementException | ValidationException e) {
             log.error("Error creating item: {}", e.getMessage());
@@ -82,6 +104,41 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    // Each chunk commits on its own, so rows stay in memory only until their chunk is saved
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportEventDto importItems(Iterator<ItemImportReader.Row> rows, Long userId,
+                                          Consumer<ItemImportEventDto> events) {
+        log.info("Importing items for user {}", userId);
+
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with id: " + userId);
+        }
+
+        long processed = 0;
+        long failed = 0;
+        List<ItemImportReader.Row> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() < IMPORT_CHUNK_SIZE && rows.hasNext()) {
+                continue;
+            }
+
+            // Only the first errors are reported row by row, the rest are counted
+            for (ItemImportEventDto error : importChunk(chunk, userId)) {
+                if (failed++ < MAX_REPORTED_IMPORT_ERRORS) {
+                    events.accept(error);
+                }
+            }
+            processed += chunk.size();
+            chunk.clear();
+            events.accept(ItemImportEventDto.progress(processed, processed - failed, failed));
+        }
+
+        log.info("Import by user {}: {} of {} items created", userId, processed - failed, processed);
+        return ItemImportEventDto.summary(processed, processed - failed, failed);
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(Long itemId, ItemUpdateDto itemDto, Long ownerId) {
@@ -98,6 +155,10 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("At least one field must be provided for update");
         }
 
+        boolean searchable = item.getAvailable();
+        String oldName = item.getName();
+        String oldDescription = item.getDescription();
+
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -111,48 +172,37 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(item);
-        return ItemMapper.toItemDto(updatedItem);
+        recordItemChange(updatedItem);
+        ItemDto updatedItemDto = ItemMapper.toItemDto(updatedItem);
+        itemSearchIndex.updateAfterCommit(updatedItemDto);
+        itemSuggestIndex.updateAfterCommit(updatedItemDto);
+        // Unavailable items never show up in search, so only changes that touch a searchable item count
+        if ((searchable || updatedItem.getAvailable()) && (searchable != updatedItem.getAvailable()
+                || !oldName.equals(updatedItem.getName())
+                || !oldDescription.equals(updatedItem.getDescription()))) {
+            itemSearchCache.invalidateAfterCommit();
+        }
+        itemViewCache.invalidateAfterCommit(itemId);
+        return updatedItemDto;
     }
 
     @Override
     public ItemWithBookingsDto getItemById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NoSuchElementException("Item not found with id: " + itemId));
+        ItemView view = itemViewCache.get(itemId, this::loadItemView);
 
         ItemWithBookingsDto itemWithBookings = new ItemWithBookingsDto();
-        itemWithBookings.setId(item.getId());
-        itemWithBookings.setName(item.getName());
-        itemWithBookings.setDescription(item.getDescription());
-        itemWithBookings.setAvailable(item.getAvailable());
-        itemWithBookings.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
-
-        if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
-
-            bookingRepository.findFirstByItemIdAndEndBeforeAndStatusOrderByEndDesc(
-                            itemId, now, BookingStatus.APPROVED)
-                    .ifPresent(booking -> itemWithBookings.setLastBooking(
-                            new ItemWithBookingsDto.BookingInfoDto(
-                                    booking.getId(),
-                                    booking.getBooker().getId()
-                            )
-                    ));
-
-            bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            itemId, now, BookingStatus.APPROVED)
-                    .ifPresent(booking -> itemWithBookings.setNextBooking(
-                            new ItemWithBookingsDto.BookingInfoDto(
-                                    booking.getId(),
-                                    booking.getBooker().getId()
-                            )
-                    ));
+        itemWithBookings.setId(view.getId());
+        itemWithBookings.setName(view.getName());
+        itemWithBookings.setDescription(view.getDescription());
+        itemWithBookings.setAvailable(view.getAvailable());
+        itemWithBookings.setRequestId(view.getRequestId());
+
+        if (view.getOwnerId().equals(userId)) {
+            bookingRepository.findLastAndNextApprovedBookings(List.of(itemId), LocalDateTime.now())
+                    .forEach(lastNext -> applyLastAndNextBookings(itemWithBookings, lastNext));
         }
 
-        List<CommentResponseDto> comments = commentRepository.findByItemIdOrderByCreatedDesc(itemId)
-                .stream()
-                .map(this::toCommentResponseDto)
-                .collect(Collectors.toList());
-        itemWithBookings.setComments(comments);
+        itemWithBookings.setComments(new ArrayList<>(view.getComments()));
 
         return itemWithBookings;
     }
@@ -163,18 +213,18 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NoSuchElementException("User not found with id: " + ownerId));
 
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Item> items = itemRepository.findByOwnerId(ownerId, pageRequest);
+        List<ItemDto> items = itemRepository.findItemDtosByOwnerId(ownerId, pageRequest);
 
         if (items.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        List<Long> itemIds = items.stream().map(ItemDto::getId).collect(Collectors.toList());
 
-        Map<Long, List<Booking>> bookingsByItemId = bookingRepository
-                .findByItemIdIn(itemIds)
+        Map<Long, LastNextBookingView> lastNextByItemId = bookingRepository
+                .findLastAndNextApprovedBookings(itemIds, LocalDateTime.now())
                 .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+                .collect(Collectors.toMap(LastNextBookingView::getItemId, Function.identity()));
 
         Map<Long, List<Comment>> commentsByItemId = commentRepository
                 .findByItemIdInOrderByCreatedDesc(itemIds)
@@ -188,28 +238,12 @@ public class ItemServiceImpl implements ItemService {
                     dto.setName(item.getName());
                     dto.setDescription(item.getDescription());
                     dto.setAvailable(item.getAvailable());
-                    dto.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
-
-                    List<Booking> itemBookings = bookingsByItemId.getOrDefault(item.getId(), Collections.emptyList());
-                    LocalDateTime now = LocalDateTime.now();
-
-                    itemBookings.stream()
-                            .filter(b -> b.getEnd().isBefore(now) && b.getStatus() == BookingStatus.APPROVED)
-                            .max(Comparator.comparing(Booking::getEnd))
-                            .ifPresent(lastBooking -> dto.setLastBooking(
-                                    new ItemWithBookingsDto.BookingInfoDto(
-                                            lastBooking.getId(),
-                                            lastBooking.getBooker().getId()
-                                    )));
-
-                    itemBookings.stream()
-                            .filter(b -> b.getStart().isAfter(now) && b.getStatus() == BookingStatus.APPROVED)
-                            .min(Comparator.comparing(Booking::getStart))
-                            .ifPresent(nextBooking -> dto.setNextBooking(
-                                    new ItemWithBookingsDto.BookingInfoDto(
-                                            nextBooking.getId(),
-                                            nextBooking.getBooker().getId()
-                                    )));
+                    dto.setRequestId(item.getRequestId());
+
+                    LastNextBookingView lastNext = lastNextByItemId.get(item.getId());
+                    if (lastNext != null) {
+                        applyLastAndNextBookings(dto, lastNext);
+                    }
 
                     List<CommentResponseDto> comments = commentsByItemId
                             .getOrDefault(item.getId(), Collections.emptyList())
@@ -225,16 +259,59 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> searchItems(String text, int from, int size) {
+    public List<ItemDto> searchItems(String text, SearchMode mode, int from, int size, LocalDateTime start,
+                                     LocalDateTime end) {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
 
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        return itemRepository.searchAvailableItems(text, pageRequest)
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        String query = ItemSearchCache.normalize(text);
+        if (start != null || end != null) {
+            return searchItemsFreeBetween(query, mode, from, size, start, end);
+        }
+
+        int offset = (from / size) * size;
+        return itemSearchCache.get(query, mode, offset, size, () -> {
+            if (itemSearchIndex.isReady()) {
+                return itemSearchIndex.search(query, mode, from, size);
+            }
+
+            // Prefix and fuzzy matching need the index; until it is built they degrade to substring matching
+            log.debug("Item search index is not built yet, searching in the database");
+            PageRequest pageRequest = PageRequest.of(from / size, size);
+            return itemRepository.searchAvailableItems(query, pageRequest);
+        });
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggestItems(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ru.practicum.shareit.server.exception.ValidationException(
+                    "Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        // Type-ahead fires on every keystroke, so there is no database fallback while the trie is being built
+        if (!itemSuggestIndex.isReady()) {
+            log.debug("Item suggestion index is not built yet");
+            return Collections.emptyList();
+        }
+        return itemSuggestIndex.suggest(ItemSearchCache.normalize(prefix), limit);
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                   SlotGranularity granularity) {
+        log.info("Getting availability of item {} from {} to {} by {}", itemId, from, to, granularity);
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NoSuchElementException("Item not found with id: " + itemId);
+        }
+
+        List<ItemAvailabilityDto.SlotDto> slots = bookingSlotIndex.getSlots(itemId, from, to, granularity);
+        return new ItemAvailabilityDto(itemId, slots.get(0).getStart(), slots.get(slots.size() - 1).getEnd(),
+                granularity, slots);
     }
 
     @Override
@@ -258,9 +335,47 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
+        changeLog.record(ChangeType.COMMENT, savedComment.getId(), authorId, item.getOwner().getId());
+        itemViewCache.invalidateAfterCommit(itemId);
         return toCommentResponseDto(savedComment);
     }
 
+    private ItemView loadItemView(Long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NoSuchElementException("Item not found with id: " + itemId));
+
+        List<CommentResponseDto> comments = commentRepository.findByItemIdOrderByCreatedDesc(itemId)
+                .stream()
+                .map(this::toCommentResponseDto)
+                .collect(Collectors.toUnmodifiableList());
+
+        return new ItemView(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getRequest() != null ? item.getRequest().getId() : null,
+                item.getOwner().getId(),
+                comments
+        );
+    }
+
+    private void applyLastAndNextBookings(ItemWithBookingsDto dto, LastNextBookingView lastNext) {
+        if (lastNext.getLastBookingId() != null) {
+            dto.setLastBooking(new ItemWithBookingsDto.BookingInfoDto(
+                    lastNext.getLastBookingId(),
+                    lastNext.getLastBookerId()
+            ));
+        }
+
+        if (lastNext.getNextBookingId() != null) {
+            dto.setNextBooking(new ItemWithBookingsDto.BookingInfoDto(
+                    lastNext.getNextBookingId(),
+                    lastNext.getNextBookerId()
+            ));
+        }
+    }
+
     private CommentResponseDto toCommentResponseDto(Comment comment) {
         return new CommentResponseDto(
                 comment.getId(),
@@ -269,4 +384,152 @@ public class ItemServiceImpl implements ItemService {
                 comment.getCreated()
         );
     }
-}
\ No newline at end of file
+
+    private void validateNewItem(String name, String description, Boolean available) {
+        if (name == null || name.isBlank()) {
+            throw new ValidationException("Item name cannot be blank");
+        }
+
+        if (name.trim().length() > MAX_NAME_LENGTH) {
+            throw new ValidationException("Item name cannot be longer than " + MAX_NAME_LENGTH + " characters");
+        }
+
+        if (description == null || description.isBlank()) {
+            throw new ValidationException("Item description cannot be blank");
+        }
+
+        if (description.trim().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new ValidationException(
+                    "Item description cannot be longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+
+        if (available == null) {
+            throw new ValidationException("Item availability cannot be null");
+        }
+    }
+
+    // Owners and requests of the whole chunk are loaded with one query each and the items are saved in one
+    // transaction; returns the rejected rows ordered by line
+    private List<ItemImportEventDto> importChunk(List<ItemImportReader.Row> chunk, Long userId) {
+        List<ItemImportEventDto> errors = new ArrayList<>();
+        List<ItemImportReader.Row> valid = new ArrayList<>();
+        for (ItemImportReader.Row row : chunk) {
+            if (row.error() != null) {
+                errors.add(ItemImportEventDto.error(row.line(), row.error()));
+                continue;
+            }
+            ItemImportRowDto item = row.item();
+            try {
+                validateNewItem(item.getName(), item.getDescription(), item.getAvailable());
+                valid.add(row);
+            } catch (ValidationException e) {
+                errors.add(ItemImportEventDto.error(row.line(), e.getMessage()));
+            }
+        }
+
+        List<Long> savedLines = new ArrayList<>();
+        if (!valid.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveImportedItems(valid, userId, errors, savedLines));
+            } catch (DataAccessException e) {
+                log.error("Failed to save a chunk of imported items: {}", e.getMessage());
+                savedLines.forEach(line -> errors.add(ItemImportEventDto.error(line,
+                        "Failed to save the item: " + e.getMostSpecificCause().getMessage())));
+            }
+        }
+
+        errors.sort(Comparator.comparing(ItemImportEventDto::getLine));
+        return errors;
+    }
+
+    private void saveImportedItems(List<ItemImportReader.Row> rows, Long userId, List<ItemImportEventDto> errors,
+                                   List<Long> savedLines) {
+        Set<Long> ownerIds = rows.stream()
+                .map(row -> row.item().getOwnerId() != null ? row.item().getOwnerId() : userId)
+                .collect(Collectors.toSet());
+        Map<Long, User> ownersById = userRepository.findAllById(ownerIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Set<Long> requestIds = rows.stream()
+                .map(row -> row.item().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requestsById = itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>();
+        for (ItemImportReader.Row row : rows) {
+            ItemImportRowDto itemDto = row.item();
+            Long ownerId = itemDto.getOwnerId() != null ? itemDto.getOwnerId() : userId;
+            User owner = ownersById.get(ownerId);
+            if (owner == null) {
+                errors.add(ItemImportEventDto.error(row.line(), "User not found with id: " + ownerId));
+                continue;
+            }
+            ItemRequest request = null;
+            if (itemDto.getRequestId() != null) {
+                request = requestsById.get(itemDto.getRequestId());
+                if (request == null) {
+                    errors.add(ItemImportEventDto.error(row.line(),
+                            "Item request not found with id: " + itemDto.getRequestId()));
+                    continue;
+                }
+            }
+
+            Item item = new Item();
+            item.setName(itemDto.getName().trim());
+            item.setDescription(itemDto.getDescription().trim());
+            item.setAvailable(itemDto.getAvailable());
+            item.setOwner(owner);
+            item.setRequest(request);
+            items.add(item);
+            savedLines.add(row.line());
+        }
+
+        boolean searchable = false;
+        for (Item saved : itemRepository.saveAll(items)) {
+            recordItemChange(saved);
+            ItemDto savedDto = ItemMapper.toItemDto(saved);
+            itemSearchIndex.updateAfterCommit(savedDto);
+            itemSuggestIndex.updateAfterCommit(savedDto);
+            searchable |= saved.getAvailable();
+        }
+        if (searchable) {
+            itemSearchCache.invalidateAfterCommit();
+        }
+
+        // With open-in-view the request keeps one persistence context for all chunks; without clearing it every
+        // flush would dirty-check the items of all earlier chunks again. The flush goes through the repository so
+        // that an insert failure still arrives in importChunk as a DataAccessException
+        itemRepository.flush();
+        entityManager.clear();
+    }
+
+    // An item answering a request also changes the request as its requestor sees it
+    private void recordItemChange(Item item) {
+        changeLog.record(ChangeType.ITEM, item.getId(), item.getOwner().getId());
+        if (item.getRequest() != null) {
+            changeLog.record(ChangeType.REQUEST, item.getRequest().getId(), item.getRequest().getRequestor().getId());
+        }
+    }
+
+    // Text matches come from the search index and are checked against the booking interval index in batches
+    private List<ItemDto> searchItemsFreeBetween(String text, SearchMode mode, int from, int size,
+                                                 LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new ru.practicum.shareit.server.exception.ValidationException(
+                    "Both start and end are required and end must be after start");
+        }
+
+        if (itemSearchIndex.isReady()) {
+            return itemSearchIndex.search(text, mode, from, size,
+                    itemIds -> bookingIntervalIndex.findConflicting(itemIds, start, end));
+        }
+
+        log.debug("Item search index is not built yet, searching in the database");
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        return itemRepository.searchAvailableItemsFreeBetween(text, start, end, pageRequest);
+    }
+}
@@ -0,0 +1,326 @@
+package ru.practicum.shareit.server.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.ItemBookingCountView;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Radix trie of normalized names of available items for type-ahead suggestions.
+ * A name is ranked by the number of bookings of all items carrying it. Every node keeps the best rank in its
+ * subtree, so the top suggestions for a prefix are found best-first without visiting the whole subtree.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSuggestIndex {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Long, String> namesByItemId = new HashMap<>();
+    private final Map<Long, Long> bookingsByItemId = new HashMap<>();
+    private final Set<Long> updatedDuringRebuild = new HashSet<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building item suggestion index");
+        Map<Long, Long> bookings = bookingRepository.countBookingsByItem().stream()
+                .collect(Collectors.toMap(ItemBookingCountView::getItemId, ItemBookingCountView::getBookings));
+
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            root.children.clear();
+            root.suggestion = null;
+            root.bestScore = -1;
+            namesByItemId.clear();
+            bookingsByItemId.clear();
+            bookingsByItemId.putAll(bookings);
+            updatedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(
+                    lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Item item : batch) {
+                    if (!updatedDuringRebuild.contains(item.getId())) {
+                        add(item.getId(), item.getName());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            updatedDuringRebuild.clear();
+            ready = true;
+            log.info("Item suggestion index built: {} items", namesByItemId.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the item state to the trie once the surrounding transaction commits,
+     * or immediately when there is no transaction.
+     */
+    public void updateAfterCommit(ItemDto item) {
+        runAfterCommit(() -> update(item));
+    }
+
+    public void update(ItemDto item) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                updatedDuringRebuild.add(item.getId());
+            }
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(item.getId(), item.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts new bookings towards the rank of the items once the surrounding transaction commits.
+     */
+    public void recordBookingsAfterCommit(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> recordBookings(itemIds));
+    }
+
+    public void recordBookings(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                bookingsByItemId.merge(itemId, 1L, Long::sum);
+                String name = namesByItemId.get(itemId);
+                if (name != null) {
+                    adjust(name, 1, 0);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            String path = "";
+            int matched = 0;
+            while (matched < prefix.length()) {
+                Node child = node.children.get(prefix.charAt(matched));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefixLength(child.label, prefix, matched);
+                if (common < child.label.length() && matched + common < prefix.length()) {
+                    return Collections.emptyList();
+                }
+                node = child;
+                path += child.label;
+                matched += common;
+            }
+            return topSuggestions(node, path, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Best-first walk: a subtree is expanded only when its best rank can still beat the remaining candidates
+    private List<ItemSuggestionDto> topSuggestions(Node start, String startPath, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator
+                .comparingLong((Candidate candidate) -> candidate.score).reversed()
+                .thenComparing(candidate -> candidate.text)
+                .thenComparing(candidate -> candidate.node != null));
+        if (start.bestScore >= 0) {
+            queue.add(new Candidate(startPath, start.bestScore, 0, start));
+        }
+
+        List<ItemSuggestionDto> result = new ArrayList<>();
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (node == null) {
+                result.add(new ItemSuggestionDto(candidate.text, candidate.items, candidate.score));
+                continue;
+            }
+            if (node.suggestion != null) {
+                queue.add(new Candidate(candidate.text, node.suggestion.bookings, node.suggestion.items, null));
+            }
+            for (Node child : node.children.values()) {
+                queue.add(new Candidate(candidate.text + child.label, child.bestScore, 0, child));
+            }
+        }
+        return result;
+    }
+
+    private void add(Long itemId, String name) {
+        String key = ItemSearchCache.normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        namesByItemId.put(itemId, key);
+        adjust(key, bookingsByItemId.getOrDefault(itemId, 0L), 1);
+    }
+
+    private void remove(Long itemId) {
+        String key = namesByItemId.remove(itemId);
+        if (key != null) {
+            adjust(key, -bookingsByItemId.getOrDefault(itemId, 0L), -1);
+        }
+    }
+
+    // Walks down to the node of the key, splitting edges on the way, applies the change and then restores the
+    // subtree ranks and the radix invariants on the way back up
+    private void adjust(String key, long bookingsDelta, int itemsDelta) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            char next = key.charAt(matched);
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(matched));
+                node.children.put(next, child);
+            } else {
+                int common = commonPrefixLength(child.label, key, matched);
+                if (common < child.label.length()) {
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    middle.bestScore = child.bestScore;
+                    node.children.put(next, middle);
+                    child = middle;
+                }
+            }
+            matched += child.label.length();
+            node = child;
+            path.push(node);
+        }
+
+        if (node.suggestion == null) {
+            node.suggestion = new Suggestion();
+        }
+        node.suggestion.bookings += bookingsDelta;
+        node.suggestion.items += itemsDelta;
+        if (node.suggestion.items == 0) {
+            node.suggestion = null;
+        }
+
+        while (!path.isEmpty()) {
+            Node current = path.pop();
+            Node parent = path.peek();
+            if (parent != null && current.suggestion == null && current.children.size() <= 1) {
+                char first = current.label.charAt(0);
+                if (current.children.isEmpty()) {
+                    parent.children.remove(first);
+                } else {
+                    Node only = current.children.values().iterator().next();
+                    only.label = current.label + only.label;
+                    parent.children.put(first, only);
+                }
+                continue;
+            }
+            current.bestScore = current.suggestion != null ? current.suggestion.bookings : -1;
+            for (Node child : current.children.values()) {
+                current.bestScore = Math.max(current.bestScore, child.bestScore);
+            }
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>();
+        private Suggestion suggestion;
+        // Highest booking count of a name in the subtree, -1 while the subtree holds no names
+        private long bestScore = -1;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static class Suggestion {
+        private long bookings;
+        private int items;
+    }
+
+    private static class Candidate {
+        private final String text;
+        private final long score;
+        private final int items;
+        private final Node node;
+
+        private Candidate(String text, long score, int items, Node node) {
+            this.text = text;
+            this.score = score;
+            this.items = items;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.server.item;
+
+import lombok.Value;
+import ru.practicum.shareit.server.item.dto.CommentResponseDto;
+
+import java.util.List;
+
+/**
+ * The part of an item's details page that is the same for every viewer: the item itself and its comments.
+ */
+@Value
+public class ItemView {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long requestId;
+    Long ownerId;
+    List<CommentResponseDto> comments;
+}
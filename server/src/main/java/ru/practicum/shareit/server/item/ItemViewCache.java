@@ -0,0 +1,63 @@
+package ru.practicum.shareit.server.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link ItemView}s keyed by item id.
+ * Entries are dropped when the item or its comments change; the write TTL bounds staleness
+ * for a view loaded concurrently with a commit.
+ */
+@Component
+@Slf4j
+public class ItemViewCache {
+    private final Cache<Long, ItemView> cache;
+
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         @Value("${shareit.cache.item-view.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.cache.item-view.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemView");
+    }
+
+    public ItemView get(Long itemId, Function<Long, ItemView> loader) {
+        return cache.get(itemId, loader);
+    }
+
+    /**
+     * Drops the cached view once the surrounding transaction commits,
+     * or immediately when there is no transaction.
+     */
+    public void invalidateAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(itemId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(itemId);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        log.debug("Invalidating cached view of item {}", itemId);
+        cache.invalidate(itemId);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.server.item;
+
+public enum SearchMode {
+    // Case-insensitive substring of the name or description
+    SUBSTRING,
+    // Every query word starts some word of the name or description
+    PREFIX,
+    // Every query word is within a small edit distance of some word of the name or description
+    FUZZY
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.server.booking.SlotGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private SlotGranularity granularity;
+    private List<SlotDto> slots;
+
+    /**
+     * Run of consecutive slots with the same state.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SlotDto {
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private boolean free;
+    }
+}
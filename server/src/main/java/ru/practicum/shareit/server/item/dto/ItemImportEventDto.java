@@ -0,0 +1,41 @@
+package ru.practicum.shareit.server.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Line of the NDJSON report streamed back by a bulk import: a rejected row, progress after a chunk,
+ * or the final totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportEventDto {
+    private Type type;
+    private Long line;
+    private String error;
+    private Long processed;
+    private Long created;
+    private Long failed;
+
+    public enum Type {
+        ERROR,
+        PROGRESS,
+        SUMMARY
+    }
+
+    public static ItemImportEventDto error(long line, String error) {
+        return new ItemImportEventDto(Type.ERROR, line, error, null, null, null);
+    }
+
+    public static ItemImportEventDto progress(long processed, long created, long failed) {
+        return new ItemImportEventDto(Type.PROGRESS, null, null, processed, created, failed);
+    }
+
+    public static ItemImportEventDto summary(long processed, long created, long failed) {
+        return new ItemImportEventDto(Type.SUMMARY, null, null, processed, created, failed);
+    }
+}
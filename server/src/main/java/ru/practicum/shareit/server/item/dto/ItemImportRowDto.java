@@ -0,0 +1,19 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of a bulk import. Without an owner id the item belongs to the user running the import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportRowDto {
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+    private Long ownerId;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSuggestionDto {
+    private String text;
+    private int items;
+    private long bookings;
+}
@@ -4,14 +4,23 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long requestorId);
+    String REQUEST_ROWS = "SELECT new ru.practicum.shareit.server.request.dto.ItemRequestDto(" +
+            "r.id, r.description, r.requestor.id, r.created) FROM ItemRequest r ";
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :requestorId ORDER BY r.created DESC")
-    List<ItemRequest> findByRequestorIdNotOrderByCreatedDesc(@Param("requestorId") Long requestorId, Pageable pageable);
+    @Query(REQUEST_ROWS + "WHERE r.requestor.id = :requestorId ORDER BY r.created DESC")
+    List<ItemRequestDto> findRequestsOfRequestor(@Param("requestorId") Long requestorId);
+
+    @Query(REQUEST_ROWS + "WHERE r.requestor.id <> :requestorId ORDER BY r.created DESC")
+    List<ItemRequestDto> findRequestsOfOthers(@Param("requestorId") Long requestorId, Pageable pageable);
+
+    @Query(REQUEST_ROWS + "WHERE r.id IN :ids ORDER BY r.created DESC")
+    List<ItemRequestDto> findRequestsByIds(@Param("ids") Collection<Long> ids);
 
     List<ItemRequest> findByRequestorIdNotOrderByCreatedDesc(Long requestorId);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ package ru.practicum.shareit.server.request;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.dto.ItemRequestWithItemsDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestService {
@@ -15,4 +16,6 @@ public interface ItemRequestService {
     List<ItemRequestWithItemsDto> getAllRequests(Long userId, int from, int size);
 
     ItemRequestWithItemsDto getRequestById(Long requestId, Long userId);
+
+    List<ItemRequestWithItemsDto> getRequestsByIds(Collection<Long> requestIds);
 }
\ No newline at end of file
@@ -6,13 +6,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.dto.ItemForRequestDto;
-import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.server.sync.ChangeLog;
+import ru.practicum.shareit.server.sync.ChangeType;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +28,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ChangeLog changeLog;
 
     @Override
     @Transactional
@@ -39,7 +42,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request.setCreated(LocalDateTime.now());
 
         ItemRequest savedRequest = itemRequestRepository.save(request);
-
+        changeLog.record(ChangeType.REQUEST, savedRequest.getId(), requestorId);
 
         return new ItemRequestDto(
                 savedRequest.getId(),
@@ -54,7 +57,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         userRepository.findById(requestorId)
                 .orElseThrow(() -> new NoSuchElementException("User not found with id: " + requestorId));
 
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdOrderByCreatedDesc(requestorId);
+        List<ItemRequestDto> requests = itemRequestRepository.findRequestsOfRequestor(requestorId);
         return getRequestsWithItems(requests);
     }
 
@@ -64,7 +67,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new NoSuchElementException("User not found with id: " + userId));
 
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdNotOrderByCreatedDesc(userId, pageRequest);
+        List<ItemRequestDto> requests = itemRequestRepository.findRequestsOfOthers(userId, pageRequest);
         return getRequestsWithItems(requests);
     }
 
@@ -76,36 +79,37 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NoSuchElementException("Request not found with id: " + requestId));
 
-        List<Item> items = itemRepository.findByRequestId(requestId);
-        List<ItemForRequestDto> itemDtos = items.stream()
-                .map(this::toItemForRequestDto)
-                .collect(Collectors.toList());
+        List<ItemForRequestDto> itemDtos = itemRepository.findItemsForRequests(List.of(requestId));
 
         return toItemRequestWithItemsDto(request, itemDtos);
     }
 
-    private List<ItemRequestWithItemsDto> getRequestsWithItems(List<ItemRequest> requests) {
+    @Override
+    public List<ItemRequestWithItemsDto> getRequestsByIds(Collection<Long> requestIds) {
+        return getRequestsWithItems(itemRequestRepository.findRequestsByIds(requestIds));
+    }
+
+    private List<ItemRequestWithItemsDto> getRequestsWithItems(List<ItemRequestDto> requests) {
         if (requests.isEmpty()) {
             return Collections.emptyList();
         }
 
         List<Long> requestIds = requests.stream()
-                .map(ItemRequest::getId)
+                .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
 
-        Map<Long, List<Item>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds)
+        Map<Long, List<ItemForRequestDto>> itemsByRequestId = itemRepository.findItemsForRequests(requestIds)
                 .stream()
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+                .collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
 
         return requests.stream()
-                .map(request -> {
-                    List<ItemForRequestDto> itemDtos = itemsByRequestId
-                            .getOrDefault(request.getId(), Collections.emptyList())
-                            .stream()
-                            .map(this::toItemForRequestDto)
-                            .collect(Collectors.toList());
-                    return toItemRequestWithItemsDto(request, itemDtos);
-                })
+                .map(request -> new ItemRequestWithItemsDto(
+                        request.getId(),
+                        request.getDescription(),
+                        request.getRequestorId(),
+                        request.getCreated(),
+                        itemsByRequestId.getOrDefault(request.getId(), Collections.emptyList())
+                ))
                 .collect(Collectors.toList());
     }
 
@@ -118,15 +122,4 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 items
         );
     }
-
-    private ItemForRequestDto toItemForRequestDto(Item item) {
-        return new ItemForRequestDto(
-                item.getId(),
-                item.getName(),
-                item.getDescription(),
-                item.getAvailable(),
-                item.getOwner().getId(),
-                item.getRequest().getId()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.server.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Records which users see a changed row, in the transaction that changes it.
+ * Versions are handed out in order, but transactions commit in any order, so a reader only trusts versions below
+ * the first one of the oldest transaction still running; otherwise a client could move past a version that has
+ * not committed yet and never see it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLog {
+    private final ChangeLogRepository changeLogRepository;
+
+    // First version of every running transaction that recorded changes; guarded by itself
+    private final NavigableSet<Long> running = new TreeSet<>();
+    private long lastVersion = -1;
+
+    public void record(ChangeType type, Long entityId, Long... userIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Changes can only be recorded inside a transaction");
+        }
+
+        Set<Long> users = new LinkedHashSet<>(Arrays.asList(userIds));
+        users.remove(null);
+        synchronized (running) {
+            for (Long userId : users) {
+                ChangeLogEntry entry = changeLogRepository.save(new ChangeLogEntry(null, userId, type, entityId));
+                holdUntilCompletion(entry.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Highest version below which every recorded change has either committed or rolled back.
+     */
+    public long stableVersion() {
+        synchronized (running) {
+            initLastVersion();
+            return running.isEmpty() ? lastVersion : running.first() - 1;
+        }
+    }
+
+    private void holdUntilCompletion(long version) {
+        initLastVersion();
+        lastVersion = Math.max(lastVersion, version);
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        running.add(version);
+        TransactionSynchronizationManager.bindResource(this, version);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLog.this);
+                synchronized (running) {
+                    running.remove(version);
+                }
+            }
+        });
+    }
+
+    // Versions of an earlier run have all completed: its transactions either committed or died with it
+    private void initLastVersion() {
+        if (lastVersion < 0) {
+            lastVersion = changeLogRepository.findLastVersion();
+        }
+    }
+}
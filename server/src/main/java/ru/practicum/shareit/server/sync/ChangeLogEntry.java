@@ -0,0 +1,44 @@
+package ru.practicum.shareit.server.sync;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+@Entity
+@Table(name = "change_log")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ChangeLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+    @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_seq", allocationSize = 50)
+    private Long version;
+
+    // User whose view of the data the change affects
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private ChangeType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChangeLogEntry)) return false;
+        ChangeLogEntry entry = (ChangeLogEntry) o;
+        return getVersion() != null && Objects.equals(getVersion(), entry.getVersion());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
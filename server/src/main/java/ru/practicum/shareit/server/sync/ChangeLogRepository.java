@@ -0,0 +1,21 @@
+package ru.practicum.shareit.server.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    @Query("SELECT c FROM ChangeLogEntry c " +
+            "WHERE c.userId = :userId AND c.version > :since AND c.version <= :until " +
+            "ORDER BY c.version")
+    List<ChangeLogEntry> findChanges(@Param("userId") Long userId,
+                                     @Param("since") long since,
+                                     @Param("until") long until,
+                                     Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM ChangeLogEntry c")
+    long findLastVersion();
+}
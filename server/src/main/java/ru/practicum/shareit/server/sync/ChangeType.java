@@ -0,0 +1,8 @@
+package ru.practicum.shareit.server.sync;
+
+public enum ChangeType {
+    ITEM,
+    BOOKING,
+    COMMENT,
+    REQUEST
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.sync;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.sync.dto.SyncDto;
+
+@RestController
+@RequestMapping(path = "/sync")
+@RequiredArgsConstructor
+@Slf4j
+public class SyncController {
+    private final SyncService syncService;
+
+    @GetMapping
+    public SyncDto getChanges(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              @RequestParam(defaultValue = "0") long since,
+                              @RequestParam(defaultValue = "500") int limit) {
+        log.info("GET /sync | User-ID: {} | Since: {}", userId, since);
+        return syncService.getChanges(userId, since, limit);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.server.sync;
+
+import ru.practicum.shareit.server.sync.dto.SyncDto;
+
+public interface SyncService {
+    /**
+     * Returns the items, bookings, comments and requests of the user changed after version {@code since},
+     * at most {@code limit} changes at a time. A changed row that no longer exists is listed as deleted.
+     */
+    SyncDto getChanges(Long userId, long since, int limit);
+}
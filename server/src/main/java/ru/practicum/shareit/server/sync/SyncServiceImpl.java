@@ -0,0 +1,108 @@
+package ru.practicum.shareit.server.sync;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.exception.ValidationException;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemMapper;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.request.ItemRequestService;
+import ru.practicum.shareit.server.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.server.sync.dto.DeletedEntityDto;
+import ru.practicum.shareit.server.sync.dto.SyncCommentDto;
+import ru.practicum.shareit.server.sync.dto.SyncDto;
+import ru.practicum.shareit.server.user.UserRepository;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class SyncServiceImpl implements SyncService {
+    private static final int MAX_LIMIT = 1000;
+
+    private final ChangeLog changeLog;
+    private final ChangeLogRepository changeLogRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestService itemRequestService;
+
+    @Override
+    public SyncDto getChanges(Long userId, long since, int limit) {
+        log.info("Getting changes for user {} since version {}", userId, since);
+
+        if (since < 0) {
+            throw new ValidationException("Version must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Limit must be from 1 to " + MAX_LIMIT);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with id: " + userId);
+        }
+
+        long until = changeLog.stableVersion();
+        List<ChangeLogEntry> entries = changeLogRepository.findChanges(
+                userId, since, until, PageRequest.of(0, limit + 1));
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        long version = hasMore ? entries.get(entries.size() - 1).getVersion() : Math.max(since, until);
+
+        // A row changed several times in the page is loaded once, in its current state
+        Map<ChangeType, Set<Long>> idsByType = new EnumMap<>(ChangeType.class);
+        for (ChangeLogEntry entry : entries) {
+            idsByType.computeIfAbsent(entry.getEntityType(), type -> new LinkedHashSet<>()).add(entry.getEntityId());
+        }
+
+        List<DeletedEntityDto> deleted = new ArrayList<>();
+        List<ItemDto> items = load(ChangeType.ITEM, idsByType, deleted,
+                ids -> itemRepository.findAllById(ids).stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()),
+                ItemDto::getId);
+        List<BookingResponseDto> bookings = load(ChangeType.BOOKING, idsByType, deleted,
+                bookingRepository::findBookingRows, BookingResponseDto::getId);
+        List<SyncCommentDto> comments = load(ChangeType.COMMENT, idsByType, deleted,
+                ids -> commentRepository.findByIdIn(ids).stream()
+                        .map(comment -> new SyncCommentDto(comment.getId(), comment.getItem().getId(),
+                                comment.getText(), comment.getAuthor().getName(), comment.getCreated()))
+                        .collect(Collectors.toList()),
+                SyncCommentDto::getId);
+        List<ItemRequestWithItemsDto> requests = load(ChangeType.REQUEST, idsByType, deleted,
+                itemRequestService::getRequestsByIds, ItemRequestWithItemsDto::getId);
+
+        return new SyncDto(version, hasMore, items, bookings, comments, requests, deleted);
+    }
+
+    private <T> List<T> load(ChangeType type, Map<ChangeType, Set<Long>> idsByType, List<DeletedEntityDto> deleted,
+                             Function<Collection<Long>, List<T>> loader, Function<T, Long> idOf) {
+        Set<Long> ids = idsByType.getOrDefault(type, Collections.emptySet());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<T> rows = loader.apply(ids);
+        Set<Long> found = rows.stream()
+                .map(idOf)
+                .collect(Collectors.toSet());
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                deleted.add(new DeletedEntityDto(type, id));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.server.sync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.server.sync.ChangeType;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedEntityDto {
+    private ChangeType type;
+    private Long id;
+}
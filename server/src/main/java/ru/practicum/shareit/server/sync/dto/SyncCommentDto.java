@@ -0,0 +1,18 @@
+package ru.practicum.shareit.server.sync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncCommentDto {
+    private Long id;
+    private Long itemId;
+    private String text;
+    private String authorName;
+    private LocalDateTime created;
+}
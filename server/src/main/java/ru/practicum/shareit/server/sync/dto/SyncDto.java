@@ -0,0 +1,27 @@
+package ru.practicum.shareit.server.sync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.request.dto.ItemRequestWithItemsDto;
+
+import java.util.List;
+
+/**
+ * Current state of the rows changed after the requested version.
+ * {@code version} is the value to pass as {@code since} next time; {@code hasMore} asks to do so right away.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDto {
+    private long version;
+    private boolean hasMore;
+    private List<ItemDto> items;
+    private List<BookingResponseDto> bookings;
+    private List<SyncCommentDto> comments;
+    private List<ItemRequestWithItemsDto> requests;
+    private List<DeletedEntityDto> deleted;
+}
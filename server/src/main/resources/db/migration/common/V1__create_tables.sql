@@ -1,4 +1,4 @@
-CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
@@ -6,7 +6,7 @@ CREATE TABLE IF NOT EXISTS users (
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   description VARCHAR(1000) NOT NULL,
   requestor_id BIGINT NOT NULL,
@@ -15,7 +15,7 @@ CREATE TABLE IF NOT EXISTS requests (
   CONSTRAINT fk_request_requestor FOREIGN KEY (requestor_id) REFERENCES users(id)
 );
 
-CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE items (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(1000) NOT NULL,
@@ -27,7 +27,7 @@ CREATE TABLE IF NOT EXISTS items (
   CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id)
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
+CREATE TABLE bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -39,7 +39,7 @@ CREATE TABLE IF NOT EXISTS bookings (
   CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users(id)
 );
 
-CREATE TABLE IF NOT EXISTS comments (
+CREATE TABLE comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   text VARCHAR(1000) NOT NULL,
   item_id BIGINT NOT NULL,
@@ -48,4 +48,4 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id),
   CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
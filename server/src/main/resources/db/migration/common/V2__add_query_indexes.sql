@@ -0,0 +1,22 @@
+-- Indexes for the repository queries. IF NOT EXISTS because databases created from the former
+-- schema.sql already have some of them and are baselined at version 1.
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
@@ -0,0 +1,13 @@
+-- Owner of the booked item, copied onto the booking so owner-scoped lists do not join items.
+-- Items never change owner, so the copy cannot go stale.
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
+
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE bookings ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users(id);
+
+CREATE INDEX idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+
+CREATE INDEX idx_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC, id DESC);
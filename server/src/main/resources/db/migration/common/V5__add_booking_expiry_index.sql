@@ -0,0 +1,2 @@
+-- Lets the expiry job find WAITING bookings whose start has passed without scanning the table.
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date, id);
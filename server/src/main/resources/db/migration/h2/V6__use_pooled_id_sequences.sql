@@ -0,0 +1,28 @@
+-- Sequence-backed ids so Hibernate can batch inserts; entities allocate ids in blocks of 50 (pooled optimizer).
+-- The first value is MAX(id) + 50 because the pooled optimizer hands out the block ending at the returned value.
+-- Column defaults draw from the same sequences, so inserts without an id still get a value from a fresh block.
+-- H2 has no setval, hence the separate PostgreSQL script.
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+CREATE SEQUENCE requests_seq INCREMENT BY 50;
+ALTER SEQUENCE requests_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM requests);
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+
+CREATE SEQUENCE items_seq INCREMENT BY 50;
+ALTER SEQUENCE items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM items);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+CREATE SEQUENCE bookings_seq INCREMENT BY 50;
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings);
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+
+CREATE SEQUENCE comments_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM comments);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
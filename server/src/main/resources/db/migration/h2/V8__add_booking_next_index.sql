@@ -0,0 +1,4 @@
+-- Ascending start index for the next-booking lookup of the owner item list. H2 cannot read an index backwards,
+-- so idx_bookings_item_status_start (start_date DESC) made it scan and sort the whole future history of an item.
+-- PostgreSQL reads that index in reverse, hence no PostgreSQL script.
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start_asc ON bookings (item_id, status, start_date);
@@ -0,0 +1,2 @@
+-- Serves UserRepository.findByEmailIgnoreCase, which compares LOWER(email)
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (LOWER(email));
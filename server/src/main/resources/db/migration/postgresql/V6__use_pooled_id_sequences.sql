@@ -0,0 +1,32 @@
+-- Sequence-backed ids so Hibernate can batch inserts; entities allocate ids in blocks of 50 (pooled optimizer).
+-- The first value is MAX(id) + 50 because the pooled optimizer hands out the block ending at the returned value.
+-- Column defaults draw from the same sequences, so inserts without an id still get a value from a fresh block.
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+CREATE SEQUENCE requests_seq INCREMENT BY 50;
+SELECT setval('requests_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM requests), false);
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq OWNED BY requests.id;
+
+CREATE SEQUENCE items_seq INCREMENT BY 50;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+
+CREATE SEQUENCE bookings_seq INCREMENT BY 50;
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings), false);
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+CREATE SEQUENCE comments_seq INCREMENT BY 50;
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM comments), false);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
@@ -0,0 +1,26 @@
+-- Change log behind GET /sync: one row per change and per user who sees the changed row, ordered by version.
+-- Versions come from a pooled sequence like the entity ids, so they start at MAX(version) + 50.
+CREATE TABLE change_log (
+  version BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  entity_type VARCHAR(20) NOT NULL,
+  entity_id BIGINT NOT NULL,
+  CONSTRAINT pk_change_log PRIMARY KEY (version)
+);
+
+CREATE INDEX idx_change_log_user_version ON change_log (user_id, version);
+
+-- Existing rows are logged once so that a sync from version 0 returns the full state
+INSERT INTO change_log (version, user_id, entity_type, entity_id)
+SELECT ROW_NUMBER() OVER (ORDER BY entity_type, entity_id, user_id), user_id, entity_type, entity_id
+FROM (
+  SELECT owner_id AS user_id, CAST('ITEM' AS VARCHAR(20)) AS entity_type, id AS entity_id FROM items
+  UNION SELECT booker_id, 'BOOKING', id FROM bookings
+  UNION SELECT owner_id, 'BOOKING', id FROM bookings
+  UNION SELECT c.author_id, 'COMMENT', c.id FROM comments c
+  UNION SELECT i.owner_id, 'COMMENT', c.id FROM comments c JOIN items i ON i.id = c.item_id
+  UNION SELECT requestor_id, 'REQUEST', id FROM requests
+) existing;
+
+CREATE SEQUENCE change_log_seq INCREMENT BY 50;
+SELECT setval('change_log_seq', (SELECT COALESCE(MAX(version), 0) + 50 FROM change_log), false);
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.server;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.BookingCursor;
+import ru.practicum.shareit.server.booking.BookingService;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.item.ItemService;
+import ru.practicum.shareit.server.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.server.request.ItemRequestService;
+import ru.practicum.shareit.server.request.dto.ItemRequestWithItemsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The list endpoints must read their rows, and everything shown with them, in a fixed number of statements
+ * no matter how many rows there are: one for the user check, one for the page and one per related collection.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking.expiry.enabled=false"
+})
+class ListQueryStatementCountTest {
+    private static final long OWNER_ID = 1;
+    private static final long REQUESTOR_ID = 2;
+    private static final int ITEMS = 10;
+    private static final int BOOKERS = 5;
+    private static final int REQUESTS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class) > 0) {
+            return;
+        }
+
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'owner', 'owner@test.ru')", OWNER_ID);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'requestor', 'requestor@test.ru')",
+                REQUESTOR_ID);
+        for (long booker = 1; booker <= BOOKERS; booker++) {
+            jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                    100 + booker, "booker" + booker, "booker" + booker + "@test.ru");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (long request = 1; request <= REQUESTS; request++) {
+            jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                    request, "request " + request, REQUESTOR_ID, now.minusDays(request));
+        }
+
+        long bookingId = 1;
+        long commentId = 1;
+        for (long item = 1; item <= ITEMS; item++) {
+            jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                    "VALUES (?, ?, ?, TRUE, ?, ?)", item, "item " + item, "description " + item, OWNER_ID,
+                    (item - 1) % REQUESTS + 1);
+            for (long booker = 1; booker <= BOOKERS; booker++) {
+                jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, " +
+                                "status) VALUES (?, ?, ?, ?, ?, ?, 'APPROVED')", bookingId++,
+                        now.minusDays(10 + booker), now.minusDays(9 + booker), item, 100 + booker, OWNER_ID);
+                jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, " +
+                                "status) VALUES (?, ?, ?, ?, ?, ?, 'APPROVED')", bookingId++,
+                        now.plusDays(10 + booker), now.plusDays(11 + booker), item, 100 + booker, OWNER_ID);
+                jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                        "VALUES (?, ?, ?, ?, ?)", commentId++, "comment", item, 100 + booker, now.minusDays(booker));
+            }
+        }
+    }
+
+    @Test
+    void bookerBookingsAreReadWithOneQuery() {
+        List<BookingResponseDto> bookings = countStatements(2, () -> bookingService.getBookingsByBooker(
+                101L, "ALL", BookingCursor.FIRST, PageRequest.of(0, 20)));
+
+        assertEquals(ITEMS * 2, bookings.size());
+    }
+
+    @Test
+    void ownerBookingsAreReadWithOneQuery() {
+        List<BookingResponseDto> bookings = countStatements(2, () -> bookingService.getBookingsByOwner(
+                OWNER_ID, "ALL", BookingCursor.FIRST, PageRequest.of(0, 50)));
+
+        assertEquals(50, bookings.size());
+    }
+
+    @Test
+    void ownerItemsReadBookingsAndCommentsWithOneQueryEach() {
+        List<ItemWithBookingsDto> items = countStatements(4, () -> itemService.getItemsByOwner(OWNER_ID, 0, 20));
+
+        assertEquals(ITEMS, items.size());
+        items.forEach(item -> assertEquals(BOOKERS, item.getComments().size()));
+    }
+
+    @Test
+    void requestorRequestsReadTheirItemsWithOneQuery() {
+        List<ItemRequestWithItemsDto> requests = countStatements(3,
+                () -> itemRequestService.getRequestsByRequestor(REQUESTOR_ID));
+
+        assertEquals(REQUESTS, requests.size());
+        requests.forEach(request -> assertEquals(ITEMS / REQUESTS, request.getItems().size()));
+    }
+
+    @Test
+    void otherUsersRequestsReadTheirItemsWithOneQuery() {
+        List<ItemRequestWithItemsDto> requests = countStatements(3,
+                () -> itemRequestService.getAllRequests(OWNER_ID, 0, 20));
+
+        assertEquals(REQUESTS, requests.size());
+        requests.forEach(request -> assertEquals(ITEMS / REQUESTS, request.getItems().size()));
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
@@ -0,0 +1,325 @@
+package ru.practicum.shareit.server;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.BookingCursor;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.sync.ChangeLogRepository;
+import ru.practicum.shareit.server.user.UserRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every query method of the repositories against a seeded H2 database and checks the plans with EXPLAIN.
+ * No statement may scan a table holding more than {@link #SCAN_THRESHOLD} rows, and queries that have an index
+ * of their own in the migrations must be served by that index. The plans are taken for the SQL Hibernate actually
+ * generates, which is recorded by {@link SqlRecorder}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.server.QueryPlanTest$SqlRecorder",
+        "shareit.booking.expiry.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    // Tables up to this size may be scanned, which lets the substring search read the items table
+    private static final int SCAN_THRESHOLD = 5_000;
+
+    private static final int USERS = 200;
+    private static final int ITEMS = 2_000;
+    private static final int REQUESTS = 10_000;
+    private static final int BOOKINGS = 50_000;
+    private static final int COMMENTS = 10_000;
+    private static final int CHANGES = 50_000;
+
+    private static final List<Class<?>> REPOSITORIES = List.of(BookingRepository.class, ItemRepository.class,
+            CommentRepository.class, ItemRequestRepository.class, UserRepository.class, ChangeLogRepository.class);
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("public\\.(\\w+)\\.tableScan");
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+    private static final List<Long> IDS = List.of(1L, 201L, 401L);
+    private static final LocalDateTime CURSOR_START = BookingCursor.FIRST.getStart();
+    private static final Long CURSOR_ID = BookingCursor.FIRST.getId();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    private List<Item> items;
+
+    @BeforeAll
+    void seed() {
+        // system_range returns its column as upper case X, which has to be quoted with DATABASE_TO_LOWER
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT \"X\", 'user' || \"X\", 'user' || \"X\" || '@test.ru' FROM system_range(1, ?)", USERS);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "SELECT \"X\", 'request', MOD(\"X\", ?) + 1, DATEADD(MINUTE, -\"X\", CAST(? AS TIMESTAMP)) " +
+                "FROM system_range(1, ?)",
+                USERS, NOW, REQUESTS);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "SELECT \"X\", 'item', 'description', TRUE, MOD(\"X\", ?) + 1, " +
+                "CASE WHEN MOD(\"X\", 2) = 0 THEN \"X\" END FROM system_range(1, ?)", USERS, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) " +
+                "SELECT \"X\", DATEADD(HOUR, \"X\" - ?, CAST(? AS TIMESTAMP)), " +
+                "DATEADD(HOUR, \"X\" - ? + 1, CAST(? AS TIMESTAMP)), MOD(\"X\", ?) + 1, " +
+                "MOD(\"X\" * 7, ?) + 1, MOD(MOD(\"X\", ?) + 1, ?) + 1, " +
+                "CASE MOD(\"X\", 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END " +
+                "FROM system_range(1, ?)",
+                BOOKINGS / 2, NOW, BOOKINGS / 2, NOW, ITEMS, USERS, ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT \"X\", 'comment', MOD(\"X\", ?) + 1, MOD(\"X\", ?) + 1, " +
+                "DATEADD(MINUTE, -\"X\", CAST(? AS TIMESTAMP)) " +
+                "FROM system_range(1, ?)", ITEMS, USERS, NOW, COMMENTS);
+        jdbcTemplate.update("INSERT INTO change_log (version, user_id, entity_type, entity_id) " +
+                "SELECT \"X\", MOD(\"X\", ?) + 1, 'BOOKING', \"X\" FROM system_range(1, ?)", USERS, CHANGES);
+        jdbcTemplate.execute("ANALYZE");
+
+        items = itemRepository.findAllById(IDS);
+    }
+
+    Stream<QueryCase> queries() {
+        return Stream.of(
+                // Bookings
+                new QueryCase("findBookerSummary", () -> bookingRepository.findBookerSummary(1L, NOW)),
+                new QueryCase("findOwnerSummary", () -> bookingRepository.findOwnerSummary(1L, NOW)),
+                new QueryCase("findBookerCurrentBookings", () -> bookingRepository.findBookerCurrentBookings(
+                        1L, NOW, CURSOR_START, CURSOR_ID, PAGE), "idx_bookings_booker_start"),
+                new QueryCase("findBookerFutureBookings", () -> bookingRepository.findBookerFutureBookings(
+                        1L, NOW, CURSOR_START, CURSOR_ID, PAGE), "idx_bookings_booker_start"),
+                new QueryCase("findBookerBookingsByStatus", () -> bookingRepository.findBookerBookingsByStatus(
+                        1L, BookingStatus.WAITING, CURSOR_START, CURSOR_ID, PAGE), "idx_bookings_booker_status_start"),
+                new QueryCase("findOwnerCurrentBookings", () -> bookingRepository.findOwnerCurrentBookings(
+                        1L, NOW, CURSOR_START, CURSOR_ID, PAGE), "idx_bookings_owner_start"),
+                new QueryCase("findOwnerFutureBookings", () -> bookingRepository.findOwnerFutureBookings(
+                        1L, NOW, CURSOR_START, CURSOR_ID, PAGE), "idx_bookings_owner_start"),
+                new QueryCase("findOwnerBookingsByStatus", () -> bookingRepository.findOwnerBookingsByStatus(
+                        1L, BookingStatus.WAITING, CURSOR_START, CURSOR_ID, PAGE), "idx_bookings_owner_status_start"),
+                // H2 uses an index for the order only when it covers every selected column, so without a start
+                // range to narrow the composite index it picks its own booker or owner foreign key index and sorts
+                new QueryCase("findBookerBookings", () -> bookingRepository.findBookerBookings(
+                        1L, CURSOR_START, CURSOR_ID, PAGE)),
+                new QueryCase("findBookerPastBookings", () -> bookingRepository.findBookerPastBookings(
+                        1L, NOW, CURSOR_START, CURSOR_ID, PAGE)),
+                new QueryCase("findOwnerBookings", () -> bookingRepository.findOwnerBookings(
+                        1L, CURSOR_START, CURSOR_ID, PAGE)),
+                new QueryCase("findOwnerPastBookings", () -> bookingRepository.findOwnerPastBookings(
+                        1L, NOW, CURSOR_START, CURSOR_ID, PAGE)),
+                new QueryCase("streamBookerBookings", () -> inTransaction(() -> {
+                    try (Stream<BookingResponseDto> rows = bookingRepository.streamBookerBookings(1L)) {
+                        rows.forEach(row -> { });
+                    }
+                })),
+                new QueryCase("streamOwnerBookings", () -> inTransaction(() -> {
+                    try (Stream<BookingResponseDto> rows = bookingRepository.streamOwnerBookings(1L)) {
+                        rows.forEach(row -> { });
+                    }
+                })),
+                new QueryCase("findBookingRows", () -> bookingRepository.findBookingRows(IDS)),
+                new QueryCase("hasUserBookedItem", () -> bookingRepository.hasUserBookedItem(1L, 1L, NOW),
+                        "idx_bookings_item_status_end"),
+                new QueryCase("findLastAndNextApprovedBookings",
+                        () -> bookingRepository.findLastAndNextApprovedBookings(IDS, NOW),
+                        "idx_bookings_item_status_end", "idx_bookings_item_status_start_asc"),
+                // Reads every booking once at startup to build the suggest index
+                new QueryCase("countBookingsByItem", () -> bookingRepository.countBookingsByItem()),
+                new QueryCase("findDecisionViews", () -> bookingRepository.findDecisionViews(IDS)),
+                new QueryCase("findWaitingStartedBefore", () -> bookingRepository.findWaitingStartedBefore(NOW, PAGE),
+                        "idx_bookings_status_start"),
+                new QueryCase("updateWaitingStatus", () -> inRolledBackTransaction(
+                        () -> bookingRepository.updateWaitingStatus(IDS, BookingStatus.EXPIRED))),
+                new QueryCase("findIdsWithStatus",
+                        () -> bookingRepository.findIdsWithStatus(IDS, BookingStatus.EXPIRED)),
+                new QueryCase("findByItemIdAndStatusAndEndAfterOrderByStartAsc",
+                        () -> bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                                1L, BookingStatus.APPROVED, NOW), "idx_bookings_item_status_end"),
+                new QueryCase("findByItemIdInAndStatusAndEndAfterOrderByStartAsc",
+                        () -> bookingRepository.findByItemIdInAndStatusAndEndAfterOrderByStartAsc(
+                                IDS, BookingStatus.APPROVED, NOW), "idx_bookings_item_status_end"),
+                // Items. H2 indexes every foreign key itself and serves single-column lookups with that index
+                // rather than the equal one from the migrations, so only the scan rule applies to them
+                new QueryCase("findByOwnerIdOrderById", () -> itemRepository.findByOwnerIdOrderById(2L)),
+                new QueryCase("findItemDtosByOwnerId", () -> itemRepository.findItemDtosByOwnerId(2L, PAGE)),
+                new QueryCase("searchAvailableItems", 1, () -> itemRepository.searchAvailableItems("item")),
+                new QueryCase("searchAvailableItems", 2, () -> itemRepository.searchAvailableItems("item", PAGE)),
+                new QueryCase("searchAvailableItemsFreeBetween", () -> itemRepository.searchAvailableItemsFreeBetween(
+                        "item", NOW, NOW.plusDays(1), PAGE), "idx_bookings_item_status_start_asc"),
+                new QueryCase("findByRequestId", () -> itemRepository.findByRequestId(2L)),
+                new QueryCase("findItemsForRequests", () -> itemRepository.findItemsForRequests(List.of(2L, 4L, 6L))),
+                new QueryCase("findByAvailableTrueAndIdGreaterThanOrderByIdAsc",
+                        () -> itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(100L, PAGE)),
+                // Comments, read whole for each item, so on H2 the foreign key index finds them as well
+                new QueryCase("findByItemIdOrderByCreatedDesc",
+                        () -> commentRepository.findByItemIdOrderByCreatedDesc(1L)),
+                new QueryCase("findByItemInOrderByCreatedDesc",
+                        () -> commentRepository.findByItemInOrderByCreatedDesc(items)),
+                new QueryCase("findByItemIdInOrderByCreatedDesc",
+                        () -> commentRepository.findByItemIdInOrderByCreatedDesc(IDS)),
+                new QueryCase("findByIdIn", () -> commentRepository.findByIdIn(IDS)),
+                // Requests
+                // All requests of the requestor are read, on H2 through the foreign key index
+                new QueryCase("findRequestsOfRequestor", () -> itemRequestRepository.findRequestsOfRequestor(1L)),
+                new QueryCase("findRequestsOfOthers", () -> itemRequestRepository.findRequestsOfOthers(1L, PAGE),
+                        "idx_requests_created"),
+                new QueryCase("findRequestsByIds", () -> itemRequestRepository.findRequestsByIds(IDS)),
+                new QueryCase("findByRequestorIdNotOrderByCreatedDesc",
+                        () -> itemRequestRepository.findByRequestorIdNotOrderByCreatedDesc(1L), "idx_requests_created"),
+                // Users, whose lower(email) index exists only on PostgreSQL
+                new QueryCase("findByEmail", () -> userRepository.findByEmail("user1@test.ru")),
+                new QueryCase("findByEmailIgnoreCase", () -> userRepository.findByEmailIgnoreCase("USER1@test.ru")),
+                // Change log
+                new QueryCase("findChanges", () -> changeLogRepository.findChanges(1L, 0, CHANGES, PAGE),
+                        "idx_change_log_user_version"),
+                new QueryCase("findLastVersion", () -> changeLogRepository.findLastVersion())
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesIndexes(QueryCase queryCase) {
+        SqlRecorder.STATEMENTS.clear();
+        queryCase.query().run();
+
+        List<String> plans = new ArrayList<>();
+        for (String sql : SqlRecorder.STATEMENTS) {
+            // Explained without values, which gives the plan H2 builds for the parameterised statement
+            plans.add(String.join("\n", jdbcTemplate.query(
+                    connection -> connection.prepareStatement("EXPLAIN " + sql), (row, rowNum) -> row.getString(1))));
+        }
+        assertFalse(plans.isEmpty(), "No statement was recorded");
+
+        for (String plan : plans) {
+            Matcher scan = TABLE_SCAN.matcher(plan);
+            while (scan.find()) {
+                long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + scan.group(1), Long.class);
+                assertTrue(rows <= SCAN_THRESHOLD, "Scan of " + scan.group(1) + " with " + rows + " rows in\n" + plan);
+            }
+        }
+
+        // An index read for a lookup is shown as "public.name: condition", one read only for the order as "public.name"
+        for (String index : queryCase.indexes()) {
+            assertTrue(plans.stream().anyMatch(plan ->
+                            plan.contains("public." + index + ":") || plan.contains("public." + index + " */")),
+                    index + " is not used in\n" + String.join("\n", plans));
+        }
+    }
+
+    @Test
+    void everyRepositoryQueryIsExplained() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            Arrays.stream(repository.getDeclaredMethods())
+                    .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                    .map(QueryPlanTest::key)
+                    .forEach(declared::add);
+        }
+        Set<String> explained = queries()
+                .map(queryCase -> queryCase.method() + "/" + queryCase.parameters())
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertEquals(declared, explained);
+    }
+
+    private static String key(Method method) {
+        return method.getName() + "/" + method.getParameterCount();
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+
+    private void inRolledBackTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            action.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    record QueryCase(String method, int parameters, Runnable query, String... indexes) {
+        QueryCase(String method, Runnable query, String... indexes) {
+            this(method, parameterCount(method), query, indexes);
+        }
+
+        private static int parameterCount(String method) {
+            List<Method> methods = REPOSITORIES.stream()
+                    .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                    .filter(candidate -> candidate.getName().equals(method))
+                    .collect(Collectors.toList());
+            if (methods.size() != 1) {
+                throw new IllegalArgumentException(method + " is overloaded or missing, give its parameter count");
+            }
+            return methods.get(0).getParameterCount();
+        }
+
+        @Override
+        public String toString() {
+            return method + "/" + parameters;
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}